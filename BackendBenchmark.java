@@ -0,0 +1,152 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the benchmark that compares the MinPriorityQueue backends on Dijkstra's algorithm over a
+ * dense random graph, where rebalancing (lowering a priority) happens far more often than pulling
+ * Every backend runs the same search from node 0 a few times to warm up and then a few timed times,
+ * and the fastest timed run is reported with the number of inserts, rebalances and pulls it made.
+ * The distances found by every backend are checked against each other.
+ * The graph is built over graphNodes the caller has already interned (such as the ones a program
+ * loaded), with the same number of random edges out of every one of them.
+ */
+public class BackendBenchmark {
+	private static final int WARMUP_RUNS = 10;
+	private static final int TIMED_RUNS = 10;
+
+	/**
+	 * This method builds a random graph over the graphNodes of a dictionary, runs every backend on it
+	 * and prints the results as a table
+	 * This method has an O(runs * backends * (V + E) log V) running time
+	 * @param dictionary the graphNodes, at least one; their priorities are overwritten
+	 * @param degree the number of edges out of each graphNode
+	 * @param maxWeight the largest edge weight, at least 1
+	 * @param seed the seed of the random edges and weights
+	 * @throws IllegalArgumentException if the dictionary is empty, or degree or maxWeight is too small
+	 */
+	public static void compare(NodeDictionary dictionary, int degree, int maxWeight, long seed) throws IllegalArgumentException {
+		if (dictionary.size() == 0 || degree < 0 || maxWeight < 1) {
+			throw new IllegalArgumentException("need at least one graphNode, a degree of at least 0 and a weight of at least 1");
+		}
+		int nodes = dictionary.size();
+		CSRGraph graph = randomGraph(dictionary, degree, maxWeight, new Random(seed));
+		System.out.println(nodes + " nodes, " + graph.edgeCount() + " edges, weights 1.." + maxWeight);
+		System.out.println(String.format("%-22s %10s %10s %12s %10s", "backend", "best ms", "inserts", "rebalances", "pulls"));
+
+		long[] expected = null;
+		expected = report("Heap (binary)", graph, () -> new Heap(nodes), expected);
+		expected = report("Heap (4-ary)", graph, () -> new Heap(nodes, 4), expected);
+		expected = report("Heap (dictionary)", graph, () -> new Heap(dictionary, nodes, 4), expected);
+		expected = report("PrimitiveHeapBackend", graph, () -> new PrimitiveHeapBackend(dictionary), expected);
+		expected = report("PairingHeap", graph, () -> new PairingHeap(nodes), expected);
+		expected = report("RadixHeap", graph, () -> new RadixHeap(nodes), expected);
+		report("BucketQueue", graph, () -> new BucketQueue(maxWeight, 0), expected);
+	}
+
+	/**
+	 * This method times one backend and prints a line of the table
+	 * This method has an O(runs * (V + E) log V) running time
+	 * @param name the name printed for the backend
+	 * @param graph the graph
+	 * @param backends makes a new, empty backend for every run
+	 * @param expected the distances found by the backends before this one, or null for the first
+	 * @return the distances this backend found
+	 * @throws IllegalStateException if the distances differ from the expected ones
+	 */
+	private static long[] report(String name, CSRGraph graph, Supplier<PriorityQueueBackend> backends, long[] expected) throws IllegalStateException {
+		long[] counts = new long[3];
+		long[] distances = null;
+		long best = Long.MAX_VALUE;
+		for (int run = 0; run < WARMUP_RUNS + TIMED_RUNS; run++) {
+			long start = System.nanoTime();
+			distances = dijkstra(graph, backends.get(), counts);
+			long elapsed = System.nanoTime() - start;
+			if (run >= WARMUP_RUNS) {
+				best = Math.min(best, elapsed);
+			}
+		}
+		if (expected != null && !Arrays.equals(expected, distances)) {
+			throw new IllegalStateException(name + " found different distances");
+		}
+		int runs = WARMUP_RUNS + TIMED_RUNS;
+		System.out.println(String.format("%-22s %10.1f %10d %12d %10d", name, best / 1e6, counts[0] / runs, counts[1] / runs, counts[2] / runs));
+		return distances;
+	}
+
+	/**
+	 * This method runs Dijkstra's algorithm from node 0 on a MinPriorityQueue with a backend, using
+	 * each graphNode's priority as its tentative distance
+	 * This method has an O((V + E) log V) running time with a heap backend
+	 * @param graph the graph
+	 * @param backend an empty backend
+	 * @param counts the numbers of inserts, rebalances and pulls are added to counts[0], [1] and [2]
+	 * @return the distance of each node by ID, -1 for the nodes that cannot be reached
+	 */
+	private static long[] dijkstra(CSRGraph graph, PriorityQueueBackend backend, long[] counts) {
+		NodeDictionary dictionary = graph.getDictionary();
+		long[] distance = new long[graph.nodeCount()];
+		Arrays.fill(distance, -1);
+		boolean[] settled = new boolean[graph.nodeCount()];
+		MinPriorityQueue queue = new MinPriorityQueue(backend);
+		GraphNode source = dictionary.getNode(0);
+		source.priority = 0;
+		distance[0] = 0;
+		queue.insert(source);
+		counts[0]++;
+		while (!queue.isEmpty()) {
+			GraphNode g;
+			try {
+				g = queue.pullHighestPriorityElement();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			counts[2]++;
+			int v = dictionary.getId(g);
+			settled[v] = true;
+			for (int e = graph.firstEdge(v), end = graph.endEdge(v); e < end; e++) {
+				int to = graph.target(e);
+				long through = distance[v] + graph.weight(e);
+				if (settled[to] || (distance[to] != -1 && distance[to] <= through)) {
+					continue;
+				}
+				GraphNode node = dictionary.getNode(to);
+				node.priority = (int) through;
+				if (distance[to] == -1) {
+					queue.insert(node);
+					counts[0]++;
+				} else {
+					queue.rebalance(node);
+					counts[1]++;
+				}
+				distance[to] = through;
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * This method builds a random graph where every graphNode has the same number of edges out of it
+	 * This method has an O(V + E) running time
+	 * @param dictionary the graphNodes
+	 * @param degree the number of edges out of each graphNode
+	 * @param maxWeight the largest edge weight
+	 * @param random the source of the edges and weights
+	 * @return the graph
+	 */
+	private static CSRGraph randomGraph(NodeDictionary dictionary, int degree, int maxWeight, Random random) {
+		int nodes = dictionary.size();
+		int edges = nodes * degree;
+		int[] from = new int[edges];
+		int[] to = new int[edges];
+		int[] weight = new int[edges];
+		for (int e = 0; e < edges; e++) {
+			from[e] = e / degree;
+			to[e] = random.nextInt(nodes);
+			weight[e] = 1 + random.nextInt(maxWeight);
+		}
+		return new CSRGraph(dictionary, from, to, weight);
+	}
+}
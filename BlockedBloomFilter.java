@@ -0,0 +1,91 @@
+/**
+ * This is a blocked Bloom filter over 32-bit key hashes
+ * The bits are split into blocks of 512 bits (one 64-byte cache line), and all the bits of a key
+ * are set in the same block, so a query reads a single cache line. A false answer from
+ * mightContain means the key was definitely never added. A true answer may be a false positive.
+ * Bits can't be cleared, so the owner rebuilds the filter after many removals.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class BlockedBloomFilter {
+	private static final int BLOCK_WORDS = 8; //longs per block, 8 * 64 = 512 bits
+	private static final int BITS_PER_ENTRY = 10; //about 1% false positives
+	private static final int HASHES = 6; //bits set per key, each chosen with 9 bits of the mixed hash
+
+	private long[] words; //the bits
+	private int blocks; //number of blocks, a power of two
+
+	/**
+	 * The constructor sizes the filter for an expected number of keys
+	 * This method has an O(expectedEntries) running time
+	 * @param expectedEntries the number of keys expected to be added
+	 */
+	public BlockedBloomFilter(int expectedEntries) {
+		long bits = Math.max((long) expectedEntries * BITS_PER_ENTRY, 512);
+		blocks = 1;
+		while ((long) blocks * 512 < bits && blocks < (1 << 26)) {
+			blocks = blocks * 2;
+		}
+		words = new long[blocks * BLOCK_WORDS];
+	}
+
+	/**
+	 * This method adds a key hash to the filter
+	 * This method has a constant running time
+	 * @param hash the hash of the key
+	 */
+	public void add(int hash) {
+		int base = blockOf(hash);
+		long bits = mix(hash);
+		for (int i = 0; i < HASHES; i++) {
+			int bit = (int) (bits >>> (9 * i)) & 511;
+			words[base + (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * This method checks whether a key hash may have been added to the filter
+	 * This method has a constant running time
+	 * @param hash the hash of the key
+	 * @return false if the hash was definitely never added, true if it may have been
+	 */
+	public boolean mightContain(int hash) {
+		int base = blockOf(hash);
+		long bits = mix(hash);
+		for (int i = 0; i < HASHES; i++) {
+			int bit = (int) (bits >>> (9 * i)) & 511;
+			if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method returns the first word of the block a hash belongs to. The high bits of the
+	 * scrambled hash are used, since the hashmap already uses the low bits to choose a slot.
+	 * This method has a constant running time
+	 * @param hash the hash of the key
+	 * @return the index of the block's first word
+	 */
+	private int blockOf(int hash) {
+		long high = (hash * 0x9e3779b9) & 0xffffffffL;
+		return (int) ((high * blocks) >>> 32) * BLOCK_WORDS;
+	}
+
+	/**
+	 * This method stretches a hash to 64 bits with the murmur3 64-bit finalizer
+	 * This method has a constant running time
+	 * @param hash the hash of the key
+	 * @return the mixed bits
+	 */
+	private long mix(int hash) {
+		long x = hash;
+		x ^= x >>> 33;
+		x *= 0xff51afd7ed558ccdL;
+		x ^= x >>> 33;
+		x *= 0xc4ceb9fe1a85ec53L;
+		x ^= x >>> 33;
+		return x;
+	}
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for Dial's bucket queue, a MinPriorityQueue backend for monotone integer
+ * priorities that never run more than a fixed span ahead of the last one pulled (for Dijkstra's,
+ * the span is the largest edge weight)
+ * There is one bucket per priority in a circular array of span + 1 buckets, so inserting and
+ * rebalancing are constant time, and pulling only scans forward over empty buckets: O(span)
+ * over the whole run between two equal priorities rather than O(log n) per pull.
+ * The buckets are index-linked lists over slot arrays, and the hashmap maps each graphNode to its slot.
+ */
+public class BucketQueue implements PriorityQueueBackend {
+	private static final int MIN_CAPACITY = 16;
+
+	private HashMap slots; //maps each graphNode to its slot
+	private GraphNode[] nodes; //the graphNode in each slot
+	private long[] keys; //the priority of each slot
+	private SlotList.Links links;
+	private SlotList[] buckets; //the bucket of priority p is buckets[p % buckets.length]
+	private int[] freeSlots; //stack of slots that can be reused
+	private int freeCount;
+	private int used; //number of slots that have ever been handed out
+	private long last; //the priority of the last graphNode pulled (or the lowest allowed)
+	private int size;
+
+	/**
+	 * The constructor creates an empty bucket queue
+	 * This method has an O(maxSpan) running time
+	 * @param maxSpan the most any priority may be above the last one pulled
+	 * @param lowestPriority the lowest priority that may be inserted before the first pull (usually 0)
+	 * @throws IllegalArgumentException if maxSpan is negative or too large for an array
+	 */
+	public BucketQueue(int maxSpan, long lowestPriority) throws IllegalArgumentException {
+		if (maxSpan < 0 || maxSpan == Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("span must be between 0 and " + (Integer.MAX_VALUE - 1));
+		}
+		slots = new HashMap(MIN_CAPACITY, 0.6);
+		nodes = new GraphNode[MIN_CAPACITY];
+		keys = new long[MIN_CAPACITY];
+		freeSlots = new int[MIN_CAPACITY];
+		links = new SlotList.Links(MIN_CAPACITY);
+		buckets = new SlotList[maxSpan + 1];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new SlotList(links);
+		}
+		last = lowestPriority;
+	}
+
+	/**
+	 * This method inserts a graphNode into the bucket for its priority
+	 * This method has a constant amortized running time
+	 * @throws IllegalArgumentException if the priority is not within the span of the last one pulled
+	 */
+	public void insert(GraphNode g) throws IllegalArgumentException {
+		long key = keyOf(g);
+		int slot = takeSlot();
+		nodes[slot] = g;
+		keys[slot] = key;
+		slots.set(g, slot);
+		bucketFor(key).addFirst(slot);
+		size++;
+	}
+
+	/**
+	 * This method determines whether a graphNode is in the queue
+	 * This method has a constant running time
+	 * @param g the graphNode
+	 * @return true if the graphNode is in the queue, false otherwise
+	 */
+	public boolean hasKey(GraphNode g) {
+		return slots.hasKey(g);
+	}
+
+	/**
+	 * This method moves a graphNode to the bucket for its new priority
+	 * This method has a constant running time
+	 * @throws IllegalArgumentException if the priority is not within the span of the last one pulled
+	 */
+	public void rebalance(GraphNode g) throws IllegalArgumentException {
+		long key = keyOf(g);
+		int slot = slots.getValue(g);
+		bucketFor(keys[slot]).remove(slot);
+		keys[slot] = key;
+		bucketFor(key).addFirst(slot);
+	}
+
+	/**
+	 * This method scans forward from the last priority pulled to the first non-empty bucket
+	 * This method has an O(span) worst case running time, constant amortized over a Dijkstra run
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	public GraphNode pullMin() throws IllegalStateException {
+		if (size == 0) {
+			throw new IllegalStateException("queue is empty");
+		}
+		SlotList bucket = bucketFor(last);
+		while (bucket.size() == 0) {
+			last++;
+			bucket = bucketFor(last);
+		}
+		int slot = bucket.peekLast();
+		bucket.remove(slot);
+		GraphNode g = nodes[slot];
+		slots.remove(g);
+		nodes[slot] = null;
+		freeSlots[freeCount] = slot;
+		freeCount++;
+		size--;
+		return g;
+	}
+
+	/**
+	 * This method returns the number of graphNodes in the queue
+	 * This method has a constant running time
+	 * @return the number of graphNodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method determines whether the queue is empty
+	 * This method has a constant running time
+	 * @return true if there are no graphNodes, false otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * This method returns the priority of a graphNode, checking that it is within the span
+	 * This method has a constant running time
+	 * @param g the graphNode
+	 * @return the priority
+	 * @throws IllegalArgumentException if the priority is not within the span of the last one pulled
+	 */
+	private long keyOf(GraphNode g) throws IllegalArgumentException {
+		long priority = g.priority;
+		if (priority < last || priority - last >= buckets.length) {
+			throw new IllegalArgumentException("priority " + priority + " is outside the span ["
+					+ last + ", " + (last + buckets.length - 1) + "]");
+		}
+		return priority;
+	}
+
+	/**
+	 * This method returns the bucket of a priority
+	 * This method has a constant running time
+	 * @param key the priority
+	 * @return the bucket
+	 */
+	private SlotList bucketFor(long key) {
+		return buckets[(int) Math.floorMod(key, (long) buckets.length)];
+	}
+
+	/**
+	 * This method hands out a free slot, growing the slot arrays if every slot is in use
+	 * This method has a constant amortized running time
+	 * @return a free slot
+	 */
+	private int takeSlot() {
+		if (freeCount > 0) {
+			freeCount--;
+			return freeSlots[freeCount];
+		}
+		if (used == nodes.length) {
+			int length = nodes.length * 2;
+			nodes = Arrays.copyOf(nodes, length);
+			keys = Arrays.copyOf(keys, length);
+			freeSlots = Arrays.copyOf(freeSlots, length);
+			links.resize(length);
+		}
+		used++;
+		return used - 1;
+	}
+}
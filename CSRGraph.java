@@ -0,0 +1,285 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for a directed graph in compressed sparse row (CSR) form
+ * Every node is a dense int ID (the IDs of a NodeDictionary, when there is one). The edges out of
+ * node v are edges offsets[v] to offsets[v + 1] - 1, and edge e goes to targets[e] with weight
+ * weights[e]. So the whole graph is three int arrays, and relaxing the edges of a node reads two
+ * of them straight through instead of following pointers from one object to the next.
+ * The graph is built once, with a counting sort of its edges by source, and never changes after.
+ * It is also a Graph, so the searches that work on graphNodes work on it too, and the IDs can be
+ * used directly by a PrimitiveHeap or a Heap built with the same NodeDictionary.
+ */
+public class CSRGraph implements Graph {
+	private NodeDictionary dictionary; //gives the graphNode of each ID, null for a graph of IDs only
+	private int nodeCount;
+	private int[] offsets; //the first edge of each node, with offsets[nodeCount] = the number of edges
+	private int[] targets; //the node each edge goes to
+	private int[] weights; //the weight of each edge
+	private int maxWeight; //the largest weight of any edge, 0 for a graph without edges
+
+	/**
+	 * The constructor builds a graph from an edge list of dense IDs
+	 * This method has an O(V + E) running time
+	 * @param dictionary the dictionary the IDs come from, or null for a graph of IDs only
+	 * @param from the source of each edge
+	 * @param to the target of each edge
+	 * @param weight the weight of each edge
+	 * @throws IllegalArgumentException if the arrays do not have the same length, an ID or weight is negative,
+	 * or there is a dictionary and an ID has no graphNode in it
+	 */
+	public CSRGraph(NodeDictionary dictionary, int[] from, int[] to, int[] weight) throws IllegalArgumentException {
+		this(dictionary, 0, from, to, weight);
+	}
+
+	/**
+	 * The constructor builds a graph from an edge list of dense IDs with at least a number of nodes
+	 * This method has an O(V + E) running time
+	 * @param dictionary the dictionary the IDs come from, or null for a graph of IDs only
+	 * @param minNodeCount the smallest number of nodes the graph has, even if the last ones have no edges
+	 * @param from the source of each edge
+	 * @param to the target of each edge
+	 * @param weight the weight of each edge
+	 * @throws IllegalArgumentException if the arrays do not have the same length, an ID or weight is negative,
+	 * or there is a dictionary and an ID has no graphNode in it
+	 */
+	private CSRGraph(NodeDictionary dictionary, int minNodeCount, int[] from, int[] to, int[] weight) throws IllegalArgumentException {
+		if (from.length != to.length || from.length != weight.length) {
+			throw new IllegalArgumentException("from, to and weight must have the same length");
+		}
+		this.dictionary = dictionary;
+		int count = Math.max(minNodeCount, dictionary == null ? 0 : dictionary.size());
+		for (int e = 0; e < from.length; e++) {
+			if (from[e] < 0 || to[e] < 0) {
+				throw new IllegalArgumentException("node IDs must not be negative");
+			}
+			if (dictionary != null && (from[e] >= dictionary.size() || to[e] >= dictionary.size())) {
+				throw new IllegalArgumentException("edge " + from[e] + " -> " + to[e] + " has an ID beyond the "
+						+ dictionary.size() + " graphNodes of the dictionary");
+			}
+			if (weight[e] < 0) {
+				throw new IllegalArgumentException("edge weights must not be negative");
+			}
+			maxWeight = Math.max(maxWeight, weight[e]);
+			count = Math.max(count, Math.max(from[e], to[e]) + 1);
+		}
+		nodeCount = count;
+
+		//counting sort of the edges by source
+		offsets = new int[nodeCount + 1];
+		for (int e = 0; e < from.length; e++) {
+			offsets[from[e] + 1]++;
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = Arrays.copyOf(offsets, nodeCount);
+		targets = new int[from.length];
+		weights = new int[from.length];
+		for (int e = 0; e < from.length; e++) {
+			int slot = next[from[e]];
+			targets[slot] = to[e];
+			weights[slot] = weight[e];
+			next[from[e]]++;
+		}
+	}
+
+	/**
+	 * The constructor builds a graph from an edge list of graphNodes, interning every graphNode
+	 * This method has an O(V + E) running time
+	 * @param dictionary the dictionary the graphNodes are interned into
+	 * @param from the source of each edge
+	 * @param to the target of each edge
+	 * @param weight the weight of each edge
+	 * @throws IllegalArgumentException if the arrays do not have the same length, or a weight is negative
+	 */
+	public CSRGraph(NodeDictionary dictionary, GraphNode[] from, GraphNode[] to, int[] weight) throws IllegalArgumentException {
+		this(dictionary, intern(dictionary, from), intern(dictionary, to), weight);
+	}
+
+	/**
+	 * This method reads a graph from an edge-list file, with one edge per line given as
+	 * "from to weight" (or "from to" for a weight of 1), where from and to are dense IDs.
+	 * Blank lines and lines starting with # or % are skipped.
+	 * This method has an O(V + E) running time
+	 * @param path the path of the file
+	 * @param dictionary the dictionary the IDs come from, or null for a graph of IDs only
+	 * @return the graph
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a line is not an edge, an ID or weight is negative, or there is
+	 * a dictionary and an ID has no graphNode in it
+	 */
+	public static CSRGraph readEdgeList(String path, NodeDictionary dictionary) throws IOException, IllegalArgumentException {
+		int[] from = new int[1024];
+		int[] to = new int[1024];
+		int[] weight = new int[1024];
+		int edges = 0;
+		try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#") || line.startsWith("%")) {
+					continue;
+				}
+				String[] fields = line.split("\\s+");
+				if (fields.length < 2 || fields.length > 3) {
+					throw new IllegalArgumentException("not an edge: " + line);
+				}
+				if (edges == from.length) {
+					from = Arrays.copyOf(from, edges * 2);
+					to = Arrays.copyOf(to, edges * 2);
+					weight = Arrays.copyOf(weight, edges * 2);
+				}
+				try {
+					from[edges] = Integer.parseInt(fields[0]);
+					to[edges] = Integer.parseInt(fields[1]);
+					weight[edges] = fields.length == 3 ? Integer.parseInt(fields[2]) : 1;
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("not an edge: " + line, e);
+				}
+				edges++;
+			}
+		}
+		return new CSRGraph(dictionary, Arrays.copyOf(from, edges), Arrays.copyOf(to, edges), Arrays.copyOf(weight, edges));
+	}
+
+	/**
+	 * This method returns the graph with every edge turned around, for backward searches
+	 * This method has an O(V + E) running time
+	 * @return the reverse graph, which shares this graph's dictionary
+	 */
+	public CSRGraph reverse() {
+		int[] from = new int[targets.length];
+		for (int v = 0; v < nodeCount; v++) {
+			Arrays.fill(from, offsets[v], offsets[v + 1], v);
+		}
+		return new CSRGraph(dictionary, nodeCount, targets, from, weights);
+	}
+
+	/**
+	 * This method calls a visitor once for every edge out of a graphNode
+	 * This method has an O(degree) running time
+	 * @param g the graphNode the edges start at
+	 * @param visitor is called with the graphNode at the other end of each edge and its weight
+	 * @throws IllegalStateException if the graph has no dictionary
+	 */
+	public void forEachEdge(GraphNode g, EdgeVisitor visitor) throws IllegalStateException {
+		if (dictionary == null) {
+			throw new IllegalStateException("a graph of IDs only has no graphNodes");
+		}
+		int v = dictionary.getId(g);
+		if (v == -1 || v >= nodeCount) {
+			return;
+		}
+		for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+			visitor.visit(dictionary.getNode(targets[e]), weights[e]);
+		}
+	}
+
+	/**
+	 * This method returns the number of nodes, which is one more than the largest ID
+	 * This method has a constant running time
+	 * @return the number of nodes
+	 */
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * This method returns the number of edges
+	 * This method has a constant running time
+	 * @return the number of edges
+	 */
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * This method returns the first edge out of a node
+	 * This method has a constant running time
+	 * @param v the ID of the node
+	 * @return the index of the first edge out of the node
+	 */
+	public int firstEdge(int v) {
+		return offsets[v];
+	}
+
+	/**
+	 * This method returns one past the last edge out of a node, so the edges out of v are
+	 * firstEdge(v) to endEdge(v) - 1
+	 * This method has a constant running time
+	 * @param v the ID of the node
+	 * @return one past the index of the last edge out of the node
+	 */
+	public int endEdge(int v) {
+		return offsets[v + 1];
+	}
+
+	/**
+	 * This method returns the number of edges out of a node
+	 * This method has a constant running time
+	 * @param v the ID of the node
+	 * @return the out-degree of the node
+	 */
+	public int degree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/**
+	 * This method returns the node an edge goes to
+	 * This method has a constant running time
+	 * @param e the index of the edge
+	 * @return the ID of the target
+	 */
+	public int target(int e) {
+		return targets[e];
+	}
+
+	/**
+	 * This method returns the weight of an edge
+	 * This method has a constant running time
+	 * @param e the index of the edge
+	 * @return the weight
+	 */
+	public int weight(int e) {
+		return weights[e];
+	}
+
+	/**
+	 * This method returns the largest weight of any edge
+	 * This method has a constant running time
+	 * @return the largest weight, 0 for a graph without edges
+	 */
+	public int maxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * This method returns the dictionary that gives the graphNode of each ID
+	 * This method has a constant running time
+	 * @return the dictionary, or null for a graph of IDs only
+	 */
+	public NodeDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * This method interns every graphNode of an array
+	 * This method has an O(n) running time
+	 * @param dictionary the dictionary
+	 * @param nodes the graphNodes
+	 * @return the dense ID of each graphNode
+	 */
+	private static int[] intern(NodeDictionary dictionary, GraphNode[] nodes) {
+		int[] ids = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			ids[i] = dictionary.intern(nodes[i]);
+		}
+		return ids;
+	}
+}
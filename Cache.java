@@ -0,0 +1,245 @@
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for a bounded cache of values computed for graph nodes
+ * KEYS --> GraphNodes
+ * VALUES --> anything computed for the graph node (an index, a distance, ...)
+ * The hashmap maps each key to a slot, and the key, value and weight of the entry are kept in
+ * arrays at that slot. Once the total weight goes over the maximum, the eviction policy
+ * (LRUPolicy, ClockPolicy or TinyLFUPolicy) chooses which entries to throw out.
+ * Every operation runs in constant (amortized) time, and hashes its key once: the same hash is
+ * used for the hashmap and handed to the policy.
+ */
+public class Cache<V> {
+	private HashMap slots; //maps each key to the slot holding its entry
+	private GraphNode[] keys; //the key in each slot, null if the slot is free
+	private Object[] values; //the value in each slot
+	private int[] weights; //the weight of the entry in each slot
+	private int[] freeSlots; //stack of slots that were emptied and can be reused
+	private int freeCount; //number of slots on the freeSlots stack
+	private int used; //number of slots that have ever been handed out
+	private int size; //number of entries in the cache
+	private long totalWeight; //sum of the weights of the entries
+	private long maximumWeight; //the total weight the cache may hold
+	private Weigher<V> weigher; //weighs each entry, null if every entry weighs 1
+	private EvictionPolicy policy;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * This constructor creates a cache that holds at most a number of entries
+	 * This method has a constant running time
+	 * @param maximumEntries the number of entries the cache may hold
+	 * @param policy the eviction policy
+	 * @throws IllegalArgumentException if maximumEntries is not positive
+	 */
+	public Cache(int maximumEntries, EvictionPolicy policy) throws IllegalArgumentException {
+		this(maximumEntries, null, policy);
+	}
+
+	/**
+	 * This constructor creates a cache whose entries are weighed, and holds at most a total weight
+	 * This method has a constant running time
+	 * @param maximumWeight the total weight the cache may hold
+	 * @param weigher weighs each entry when it is put into the cache
+	 * @param policy the eviction policy
+	 * @throws IllegalArgumentException if maximumWeight is not positive
+	 */
+	public Cache(long maximumWeight, Weigher<V> weigher, EvictionPolicy policy) throws IllegalArgumentException {
+		if (maximumWeight <= 0) {
+			throw new IllegalArgumentException("maximum weight must be positive");
+		}
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.policy = policy;
+		int initial = (int) Math.min(maximumWeight, 16);
+		slots = new HashMap(initial, 0.6);
+		keys = new GraphNode[initial];
+		values = new Object[initial];
+		weights = new int[initial];
+		freeSlots = new int[initial];
+		policy.resize(initial);
+	}
+
+	/**
+	 * This method returns the value cached for a key, and counts a hit or a miss
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 * @return the cached value, or null if the key is not in the cache
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(GraphNode key) {
+		int hash = slots.hashFunction(key); //hashed once, for both the hashmap and the policy
+		int slot = slots.getValue(key, hash);
+		if (slot == -1) {
+			misses++;
+			policy.recordMiss(hash);
+			return null;
+		}
+		hits++;
+		policy.recordAccess(slot, hash);
+		return (V) values[slot];
+	}
+
+	/**
+	 * This method caches a value for a key, replacing the old value if the key is already cached,
+	 * and then evicts entries until the cache is back under its maximum weight. An entry that
+	 * weighs more than the whole cache is not cached at all.
+	 * This method has a constant amortized running time
+	 * @param key the graphNode
+	 * @param value the value to be cached
+	 */
+	public void put(GraphNode key, V value) {
+		int weight = weigher == null ? 1 : weigher.weigh(key, value);
+		int hash = slots.hashFunction(key); //hashed once, for both the hashmap and the policy
+		int slot = slots.getValue(key, hash);
+		if (slot != -1) {
+			if (weight > maximumWeight) {
+				removeSlot(slot);
+				return;
+			}
+			values[slot] = value;
+			totalWeight += weight - weights[slot];
+			weights[slot] = weight;
+			policy.recordAccess(slot, hash);
+		} else {
+			if (weight > maximumWeight) {
+				return;
+			}
+			slot = takeSlot();
+			keys[slot] = key;
+			values[slot] = value;
+			weights[slot] = weight;
+			slots.set(key, slot, hash);
+			size++;
+			totalWeight += weight;
+			policy.recordInsert(slot, hash);
+		}
+		while (totalWeight > maximumWeight) {
+			removeSlot(policy.selectVictim());
+			evictions++;
+		}
+	}
+
+	/**
+	 * This method removes a key from the cache
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 */
+	public void remove(GraphNode key) {
+		int slot = slots.getValue(key);
+		if (slot != -1) {
+			removeSlot(slot);
+		}
+	}
+
+	/**
+	 * This method returns the number of entries in the cache
+	 * This method has a constant running time
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method returns the total weight of the entries in the cache
+	 * This method has a constant running time
+	 * @return the total weight
+	 */
+	public long getWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * This method returns the number of lookups that found their key
+	 * This method has a constant running time
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * This method returns the number of lookups that did not find their key
+	 * This method has a constant running time
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * This method returns the number of entries thrown out to stay under the maximum weight
+	 * This method has a constant running time
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * This method returns the fraction of lookups that were hits
+	 * This method has a constant running time
+	 * @return the hit rate, or 0 if there were no lookups yet
+	 */
+	public double hitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / (double) lookups;
+	}
+
+	/**
+	 * This method hands out a free slot, growing the slot arrays if every slot is in use
+	 * This method has a constant amortized running time
+	 * @return a free slot
+	 */
+	private int takeSlot() {
+		if (freeCount > 0) {
+			freeCount--;
+			return freeSlots[freeCount];
+		}
+		if (used == keys.length) {
+			int capacity = Math.max(keys.length * 2, 1);
+			keys = Arrays.copyOf(keys, capacity);
+			values = Arrays.copyOf(values, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+			freeSlots = Arrays.copyOf(freeSlots, capacity);
+			policy.resize(capacity);
+		}
+		used++;
+		return used - 1;
+	}
+
+	/**
+	 * This method takes the entry in a slot out of the cache and frees the slot
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 */
+	private void removeSlot(int slot) {
+		policy.recordRemoval(slot);
+		slots.remove(keys[slot]);
+		totalWeight -= weights[slot];
+		keys[slot] = null;
+		values[slot] = null;
+		size--;
+		freeSlots[freeCount] = slot;
+		freeCount++;
+	}
+
+	/**
+	 * This is the interface for weighing the entries of a cache
+	 */
+	public interface Weigher<V> {
+
+		/**
+		 * This method returns the weight of an entry
+		 * @param key the graphNode
+		 * @param value the value cached for it
+		 * @return the weight, at least 0
+		 */
+		int weigh(GraphNode key, V value);
+	}
+}
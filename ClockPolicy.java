@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+/**
+ * This is the CLOCK (second chance) eviction policy for the Cache class
+ * Every slot has a referenced bit that is set when the entry is used. The clock hand sweeps
+ * over the slots, clearing referenced bits, and evicts the first entry whose bit is already clear.
+ * A hit only sets a bit, so reads never reorder anything.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class ClockPolicy implements EvictionPolicy {
+	private boolean[] inUse; //whether each slot holds an entry
+	private boolean[] referenced; //whether each entry was used since the hand last passed it
+	private int hand; //the next slot the hand will look at
+
+	/**
+	 * The constructor creates an empty policy
+	 * This method has a constant running time
+	 */
+	public ClockPolicy() {
+		inUse = new boolean[0];
+		referenced = new boolean[0];
+		hand = 0;
+	}
+
+	/**
+	 * This method grows the in-use and referenced bits to a new number of slots
+	 * This method has an O(capacity) running time, which is amortized over the inserts that filled the cache
+	 * @param capacity the new number of slots
+	 */
+	public void resize(int capacity) {
+		inUse = Arrays.copyOf(inUse, capacity);
+		referenced = Arrays.copyOf(referenced, capacity);
+	}
+
+	/**
+	 * This method marks a slot as holding a new entry that has not been referenced yet
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key, not used by this policy
+	 */
+	public void recordInsert(int slot, int keyHash) {
+		inUse[slot] = true;
+		referenced[slot] = false;
+	}
+
+	/**
+	 * This method sets the referenced bit of a used entry, so the hand passes it over once
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key, not used by this policy
+	 */
+	public void recordAccess(int slot, int keyHash) {
+		referenced[slot] = true;
+	}
+
+	/**
+	 * This method does nothing, since a key that is not cached has no slot
+	 * This method has a constant running time
+	 * @param keyHash the hash of the key
+	 */
+	public void recordMiss(int keyHash) {
+	}
+
+	/**
+	 * This method clears the bits of a slot whose entry left the cache, so the hand skips it
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 */
+	public void recordRemoval(int slot) {
+		inUse[slot] = false;
+		referenced[slot] = false;
+	}
+
+	/**
+	 * This method sweeps the hand until it finds an entry that was not used since the last sweep
+	 * This method has a constant amortized running time, since every bit it clears was set by a hit
+	 * @return the slot of the entry to be evicted
+	 */
+	public int selectVictim() {
+		while (true) {
+			int slot = hand;
+			hand = (hand + 1) % inUse.length;
+			if (inUse[slot]) {
+				if (referenced[slot]) {
+					referenced[slot] = false;
+				} else {
+					return slot;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,405 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the thread-safe sibling of the HashMap class, with the same hasKey/getValue/set/remove methods
+ * KEYS --> GraphNodes
+ * VALUES --> index of the graph node in the heap array
+ * Every slot of the table (a bin) holds a short chain of nodes.
+ * Reads never lock: they follow volatile links, and jump to the new table when they meet a forwarding node.
+ * An empty bin is filled with a compare-and-set, and any other write locks only the first node of its bin.
+ * Resizing is cooperative: the table is split into strides, and every thread that runs into a resize
+ * claims strides and moves them across instead of waiting for one thread to copy the whole table.
+ * The entry count is a LongAdder, so inserts on different bins do not fight over one counter, and it
+ * is only summed (to decide on a resize) when an insert makes a chain RESIZE_CHECK_LENGTH long.
+ **/
+public class ConcurrentHashMap {
+	private static final int DEFAULT_CAPACITY = 32768; //same starting size as HashMap
+	private static final double LOAD_FACTOR = 0.6; //the map doubles once it is more than 60% full
+	private static final int RESIZE_CHECK_LENGTH = 3; //the load is only summed when a chain grows this long
+	private static final int TRANSFER_STRIDE = 64; //number of bins a thread claims at a time while resizing
+	private static final int MOVED = -1; //hash of a forwarding node, real hashes are never negative
+	private static final int ALWAYS = 0; //put writes the value whether or not the key is in the map
+	private static final int IF_LOWER = 1; //put only writes a value lower than the one in the map
+	private static final int IF_ABSENT = 2; //put only writes a key that is not in the map
+
+	private volatile AtomicReferenceArray<Node> table; //the bins of the map
+	private final AtomicReference<Resize> resize; //the resize in progress, null if there is none
+	private final LongAdder load; //number of entries in the map
+
+	/**
+	 * This is the constructor for the concurrent hashmap
+	 * This method has a constant running time
+	 */
+	public ConcurrentHashMap() {
+		table = new AtomicReferenceArray<Node>(DEFAULT_CAPACITY);
+		resize = new AtomicReference<Resize>();
+		load = new LongAdder();
+	}
+
+	/**
+	 * This method determines whether a particular graphNode (key) is in the hashmap. It never locks.
+	 * This method has a constant running time
+	 * @param g graphNode key
+	 * @return true if the graphNode is in the map, and false if the graphNode is not in the map
+	 */
+	public boolean hasKey(GraphNode g) {
+		return findNode(g, hashFunction(g)) != null;
+	}
+
+	/**
+	 * This method returns the value associated with a graphNode (key) if it is found. It never locks.
+	 * This method has a constant running time
+	 * @param g the graphNode that you would like to get the value of
+	 * @return the value associated with a graphNode key. -1 is returned if the key is not found
+	 */
+	public int getValue(GraphNode g) {
+		Node e = findNode(g, hashFunction(g));
+		if (e != null) {
+			return e.value;
+		} else {
+			return -1; //key not found
+		}
+	}
+
+	/**
+	 * This method inserts a new key into the map, or changes the value of a key that is already in it.
+	 * An empty bin is claimed with a compare-and-set, otherwise the first node of the bin is locked.
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 * @param value the index of the graphNode in the heap array
+	 */
+	public void set(GraphNode key, int value) {
+		put(key, value, ALWAYS);
+	}
+
+	/**
+	 * This method inserts a new key into the map, or lowers the value of a key that is already in it.
+	 * The check and the write happen under the same lock, so concurrent relaxations of the same
+	 * graphNode always leave the smallest value behind.
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 * @param value the new value, which is only written if the key is absent or has a larger value
+	 * @return true if the value was written, false if the key already had a value no larger
+	 */
+	public boolean setIfLower(GraphNode key, int value) {
+		return put(key, value, IF_LOWER);
+	}
+
+	/**
+	 * This method inserts a key into the map only if it is not in the map yet. The check and the
+	 * write happen under the same lock, so when threads race to insert the same graphNode exactly
+	 * one of them wins, which lets the map be used to claim a graphNode.
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 * @param value the value
+	 * @return true if the key was inserted, false if it was already in the map (its value is left alone)
+	 */
+	public boolean putIfAbsent(GraphNode key, int value) {
+		return put(key, value, IF_ABSENT);
+	}
+
+	/**
+	 * This method does the work of set, setIfLower and putIfAbsent
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 * @param value the value
+	 * @param mode ALWAYS, IF_LOWER or IF_ABSENT
+	 * @return true if the value was written, false otherwise
+	 */
+	private boolean put(GraphNode key, int value, int mode) {
+		int hash = hashFunction(key);
+		String id = key.getId();
+		AtomicReferenceArray<Node> tab = table;
+		int chainLength = 1; //length of the chain the new node ends up in
+		while (true) {
+			int i = hash & (tab.length() - 1);
+			Node first = tab.get(i);
+			if (first == null) {
+				if (tab.compareAndSet(i, null, new Node(hash, key, value, null))) {
+					break;
+				}
+			} else if (first.hash == MOVED) {
+				tab = helpResize((ForwardingNode) first);
+			} else {
+				synchronized (first) {
+					if (tab.get(i) != first) {
+						continue; //the bin changed before the lock was taken, try again
+					}
+					Node e = first;
+					chainLength = 1;
+					while (true) {
+						if (e.hash == hash && (e.key == key || e.key.getId().equals(id))) {
+							if (mode == IF_ABSENT || (mode == IF_LOWER && e.value <= value)) {
+								return false;
+							}
+							e.value = value;
+							return true;
+						}
+						chainLength++;
+						if (e.next == null) {
+							e.next = new Node(hash, key, value, null);
+							break;
+						}
+						e = e.next;
+					}
+				}
+				break;
+			}
+		}
+		load.increment();
+		//summing the LongAdder reads every one of its cells, so it is only done when a chain is getting
+		//long. Below the load factor such chains are rare; above it they show up within a few inserts.
+		if (chainLength >= RESIZE_CHECK_LENGTH && load.sum() > (long) (tab.length() * LOAD_FACTOR)) {
+			rehash(tab);
+		}
+		return true;
+	}
+
+	/**
+	 * This method removes a key from the map by unlinking its node from the bin
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 */
+	public void remove(GraphNode key) {
+		int hash = hashFunction(key);
+		String id = key.getId();
+		AtomicReferenceArray<Node> tab = table;
+		while (true) {
+			int i = hash & (tab.length() - 1);
+			Node first = tab.get(i);
+			if (first == null) {
+				return;
+			} else if (first.hash == MOVED) {
+				tab = helpResize((ForwardingNode) first);
+			} else {
+				synchronized (first) {
+					if (tab.get(i) != first) {
+						continue; //the bin changed before the lock was taken, try again
+					}
+					Node previous = null;
+					for (Node e = first; e != null; previous = e, e = e.next) {
+						if (e.hash == hash && (e.key == key || e.key.getId().equals(id))) {
+							if (previous == null) {
+								tab.set(i, e.next);
+							} else {
+								previous.next = e.next;
+							}
+							load.decrement();
+							return;
+						}
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * This method returns the number of keys currently in the map.
+	 * The count is only exact when no other thread is changing the map.
+	 * This method has a running time of O(number of threads)
+	 * @return the number of keys in the map
+	 */
+	public int size() {
+		return (int) load.sum();
+	}
+
+	/**
+	 * This method computes the hash of a graphNode from its ID in the same way as HashMap,
+	 * with the sign bit cleared so a real hash can never be mistaken for a forwarding node.
+	 * This method has a constant running time (String caches its own hash code)
+	 * @param key the graphNode with its ID
+	 * @return the mixed, non-negative hash of the ID
+	 */
+	public int hashFunction(GraphNode key) {
+		return HashMap.hash(key) & 0x7fffffff;
+	}
+
+	/**
+	 * This method finds the node of a key without taking any lock
+	 * This method has a constant running time
+	 * @param key the graphNode being searched for
+	 * @param hash the hash of the key
+	 * @return the node of the key, or null if the key is not in the map
+	 */
+	private Node findNode(GraphNode key, int hash) {
+		String id = key.getId();
+		AtomicReferenceArray<Node> tab = table;
+		Node e = tab.get(hash & (tab.length() - 1));
+		while (e != null && e.hash == MOVED) {
+			tab = ((ForwardingNode) e).resize.to;
+			e = tab.get(hash & (tab.length() - 1));
+		}
+		for (; e != null; e = e.next) {
+			if (e.hash == hash && (e.key == key || e.key.getId().equals(id))) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * This method starts a resize of a table that has grown past the load factor, and helps move it.
+	 * Only one resize runs at a time; a thread that finds one already running just helps with it.
+	 * This method has a running time of O(n / number of helping threads)
+	 * @param tab the table that is too full
+	 */
+	private void rehash(AtomicReferenceArray<Node> tab) {
+		Resize current = resize.get();
+		if (current == null) {
+			//starting a resize is rare, so it is done under a lock to be sure the table is not already stale
+			synchronized (resize) {
+				current = resize.get();
+				if (current == null) {
+					if (table != tab) {
+						return; //another thread already finished resizing this table
+					}
+					current = new Resize(tab, new AtomicReferenceArray<Node>(tab.length() * 2));
+					resize.set(current);
+				}
+			}
+		}
+		transfer(current);
+	}
+
+	/**
+	 * This method is called by a writer that found a forwarding node in its bin. It helps move the
+	 * rest of the table and then carries on in the new table, whose bins for this key are already filled.
+	 * This method has a running time of O(n / number of helping threads)
+	 * @param forward the forwarding node that was found
+	 * @return the table the writer should retry in
+	 */
+	private AtomicReferenceArray<Node> helpResize(ForwardingNode forward) {
+		transfer(forward.resize);
+		return forward.resize.to;
+	}
+
+	/**
+	 * This method claims strides of the old table and moves them to the new one until every stride
+	 * has been claimed. The thread that finishes the last stride publishes the new table.
+	 * This method has a running time of O(n / number of helping threads)
+	 * @param r the resize in progress
+	 */
+	private void transfer(Resize r) {
+		int n = r.from.length();
+		int start;
+		while ((start = r.nextIndex.getAndAdd(TRANSFER_STRIDE)) < n) {
+			int end = Math.min(start + TRANSFER_STRIDE, n);
+			for (int i = start; i < end; i++) {
+				transferBin(r, i);
+			}
+			if (r.remaining.addAndGet(start - end) == 0) {
+				table = r.to;
+				resize.compareAndSet(r, null);
+			}
+		}
+	}
+
+	/**
+	 * This method moves one bin to the new table, splitting its chain between bin i and bin i + n,
+	 * and then leaves a forwarding node behind. Nodes are copied rather than relinked, so readers
+	 * that are still walking the old chain are never sent the wrong way.
+	 * This method has a constant running time
+	 * @param r the resize in progress
+	 * @param i the bin to be moved
+	 */
+	private void transferBin(Resize r, int i) {
+		int n = r.from.length();
+		while (true) {
+			Node first = r.from.get(i);
+			if (first == null) {
+				if (r.from.compareAndSet(i, null, r.forward)) {
+					return;
+				}
+			} else {
+				synchronized (first) {
+					if (r.from.get(i) != first) {
+						continue; //the bin changed before the lock was taken, try again
+					}
+					Node low = null;
+					Node high = null;
+					for (Node e = first; e != null; e = e.next) {
+						if ((e.hash & n) == 0) {
+							low = new Node(e.hash, e.key, e.value, low);
+						} else {
+							high = new Node(e.hash, e.key, e.value, high);
+						}
+					}
+					r.to.set(i, low);
+					r.to.set(i + n, high);
+					r.from.set(i, r.forward);
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * This is a simple toString method that helped with debugging
+	 * This method has an O(n) running time as it goes through the whole array.
+	 */
+	public String toString() {
+		String content = "";
+		AtomicReferenceArray<Node> tab = table;
+		for (int i = 0; i < tab.length(); i++) {
+			for (Node e = tab.get(i); e != null && e.hash != MOVED; e = e.next) {
+				content += "Index: " + i + "\t" + "Entry Object: " + e.key.getId() + " " + e.value + "\n";
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * This is one link of a bin's chain. The value and next link are volatile so that a reader
+	 * that does not lock always sees a fully built node.
+	 */
+	private static class Node {
+		final int hash;
+		final GraphNode key;
+		volatile int value;
+		volatile Node next;
+
+		Node(int hash, GraphNode key, int value, Node next) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * This is the node left in a bin of the old table once the bin has been moved
+	 */
+	private static class ForwardingNode extends Node {
+		final Resize resize;
+
+		ForwardingNode(Resize resize) {
+			super(MOVED, null, -1, null);
+			this.resize = resize;
+		}
+	}
+
+	/**
+	 * This keeps track of one resize that any number of threads can help with
+	 */
+	private static class Resize {
+		final AtomicReferenceArray<Node> from; //the table being emptied
+		final AtomicReferenceArray<Node> to; //the table twice its size
+		final ForwardingNode forward; //the node left behind in every moved bin
+		final AtomicInteger nextIndex; //the first bin of the next stride to be claimed
+		final AtomicInteger remaining; //the number of bins that still have to be moved
+
+		Resize(AtomicReferenceArray<Node> from, AtomicReferenceArray<Node> to) {
+			this.from = from;
+			this.to = to;
+			this.forward = new ForwardingNode(this);
+			this.nextIndex = new AtomicInteger(0);
+			this.remaining = new AtomicInteger(from.length());
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * This is the interface for the eviction policies of the Cache class
+ * The cache keeps its entries in numbered slots, and tells the policy about every slot that is
+ * filled, read, or emptied. When the cache is over its limit it asks the policy for a victim.
+ * Every method must run in constant (amortized) time.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public interface EvictionPolicy {
+
+	/**
+	 * This method is called when the cache grows its slot arrays
+	 * @param capacity the new number of slots
+	 */
+	void resize(int capacity);
+
+	/**
+	 * This method is called when a new entry is put into a slot
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key
+	 */
+	void recordInsert(int slot, int keyHash);
+
+	/**
+	 * This method is called when an entry is read, or its value is replaced
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key
+	 */
+	void recordAccess(int slot, int keyHash);
+
+	/**
+	 * This method is called when a key is looked up but is not in the cache
+	 * @param keyHash the hash of the key
+	 */
+	void recordMiss(int keyHash);
+
+	/**
+	 * This method is called when an entry leaves the cache, whether it was evicted or removed
+	 * @param slot the slot of the entry
+	 */
+	void recordRemoval(int slot);
+
+	/**
+	 * This method chooses the entry to be evicted. The cache calls recordRemoval on it afterwards.
+	 * @return the slot of the entry to be evicted
+	 */
+	int selectVictim();
+}
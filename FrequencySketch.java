@@ -0,0 +1,89 @@
+/**
+ * This is a count-min sketch that estimates how often each key hash has been seen recently
+ * It keeps four rows of small saturating counters (at most 15). Once the number of recorded
+ * accesses reaches the sample size, every counter is halved so that old popularity fades.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class FrequencySketch {
+	private static final int DEPTH = 4; //number of rows, each with its own hash
+	private static final int MAX_COUNT = 15;
+	private static final int[] SEEDS = {0x97cb3127, 0xb2f2e1d3, 0x5a1b9c6f, 0x3c6ef372};
+
+	private byte[] counters; //DEPTH rows of width counters each
+	private int width; //number of counters per row, a power of two
+	private int sampleSize; //number of accesses between two halvings
+	private int additions; //accesses recorded since the last halving
+
+	/**
+	 * The constructor sizes the sketch for a cache that holds a given number of entries
+	 * This method has an O(maximumEntries) running time
+	 * @param maximumEntries the number of entries of the cache
+	 */
+	public FrequencySketch(int maximumEntries) {
+		width = 16;
+		while (width < maximumEntries && width < (1 << 28)) {
+			width = width * 2;
+		}
+		counters = new byte[DEPTH * width];
+		sampleSize = 10 * Math.max(maximumEntries, 1);
+		additions = 0;
+	}
+
+	/**
+	 * This method records one access of a key
+	 * This method has a constant amortized running time
+	 * @param keyHash the hash of the key
+	 */
+	public void increment(int keyHash) {
+		boolean added = false;
+		for (int row = 0; row < DEPTH; row++) {
+			int i = indexOf(keyHash, row);
+			if (counters[i] < MAX_COUNT) {
+				counters[i]++;
+				added = true;
+			}
+		}
+		if (added && ++additions == sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * This method returns the estimated number of recent accesses of a key
+	 * This method has a constant running time
+	 * @param keyHash the hash of the key
+	 * @return the smallest of the key's counters
+	 */
+	public int frequency(int keyHash) {
+		int smallest = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			smallest = Math.min(smallest, counters[indexOf(keyHash, row)]);
+		}
+		return smallest;
+	}
+
+	/**
+	 * This method returns the counter of a key in one row
+	 * This method has a constant running time
+	 * @param keyHash the hash of the key
+	 * @param row the row
+	 * @return the index into the counters array
+	 */
+	private int indexOf(int keyHash, int row) {
+		int h = keyHash * SEEDS[row];
+		h ^= h >>> 16;
+		return row * width + (h & (width - 1));
+	}
+
+	/**
+	 * This method halves every counter
+	 * This method has an O(width) running time, once every sampleSize accesses
+	 */
+	private void reset() {
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = (byte) (counters[i] >> 1);
+		}
+		additions = additions / 2;
+	}
+}
@@ -0,0 +1,29 @@
+/**
+ * This is the interface for the weighted, directed graphs that ShortestPath searches
+ * A graph only has to list the edges out of a graphNode. The parallel searches call forEachEdge
+ * from many threads at once, so it must be safe to call concurrently while the graph is not changing.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public interface Graph {
+
+	/**
+	 * This method calls a visitor once for every edge out of a graphNode
+	 * @param g the graphNode the edges start at
+	 * @param visitor is called with the graphNode at the other end of each edge and its weight
+	 */
+	void forEachEdge(GraphNode g, EdgeVisitor visitor);
+
+	/**
+	 * This is the interface for visiting the edges out of a graphNode
+	 */
+	public interface EdgeVisitor {
+
+		/**
+		 * This method visits one edge
+		 * @param to the graphNode the edge ends at
+		 * @param weight the weight of the edge, at least 0
+		 */
+		void visit(GraphNode to, int weight);
+	}
+}
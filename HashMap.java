@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * @author Jennifer Lee
  * jelee14108@brandeis.edu
@@ -5,27 +7,96 @@
  * KEYS --> GraphNodes 
  * VALUES --> index of the graph node in the heap array
  * HASH MAP STORES ENTRY OBJECTS
+ * Collisions are resolved with Robin Hood linear probing: an entry that is further from its home
+ * slot takes the place of one that is closer, which keeps every probe chain short.
+ * In incremental rehash mode the old and new tables live side by side while a resize is in progress,
+ * and every call to set, getValue, hasKey or remove moves a few slots of the old table across.
+ * An optional membership filter (a BlockedBloomFilter over the key hashes) answers most lookups of
+ * missing keys with one cache-line read, before any probing.
  **/
 
 public class HashMap {
-	private Entry[] map; //initialize an array to store Entry objects 
-	private int capacity; //the capacity of the hashmap 
-	private int load; //load factor 
-	private int hashFactor; //a constant integer that gets progressively larger as the map rehashes 
+	private static final int DEFAULT_CAPACITY = 32768; //smallest power of two above the old default of 20000
+	private static final double LOAD_FACTOR = 0.6; //by default the map doubles once it is more than 60% full
+	private static final int MAX_CAPACITY = 1 << 30; //largest power of two an array can hold
+	private static final int MIGRATION_STEP = 8; //old slots moved across per operation during an incremental rehash
+	private static final double FILTER_REBUILD_FRACTION = 0.5; //removals, as a fraction of the keys the filter is sized for, before it is rebuilt
+
+	private Table map; //the table new entries are placed in
+	private Table oldMap; //the table being emptied by an incremental rehash, null when no rehash is in progress
+	private int migrateIndex; //the next slot of oldMap to be moved across
+	private int capacity; //the capacity of the hashmap, always a power of two
+	private int load; //number of live entries in the map (across both tables)
+	private double loadFactor; //the fraction of the capacity that may be used before the map doubles
+	private boolean incrementalRehash; //whether rehashing is spread across later operations
+	private BlockedBloomFilter filter; //the membership filter, null if it is turned off
+	private BlockedBloomFilter nextFilter; //the filter being filled for the new table during a rehash
+	private int removedSinceBuild; //removals since the filter was last built, their bits are still set
+	private long filterChecks; //lookups that asked the filter
+	private long filterRejections; //lookups the filter answered as definite misses
+	private long filterFalsePositives; //lookups the filter let through for keys that were not in the map
+
 
-	
 	/**
-	 * This is the constructor for the hashmap, I set the default capacity of the hashmap
-	 * to 20000 because I got many arrayIndexOutOfBounds exceptions with a capacity less than that. 
-	 * This method has a constant running time
+	 * This is the constructor for the hashmap. The default capacity is a power of two
+	 * so that an index can be found with a bit mask instead of a modulus.
+	 * This method has a constant running time 
 	 */
 	public HashMap() {
-		this.capacity = 20000;
-		map = new Entry[capacity];
+		this(false);
+	}
+
+	/**
+	 * This constructor lets the caller choose incremental rehashing. When it is turned on, a resize
+	 * only allocates the larger table, and the entries are moved across a few slots at a time by
+	 * the operations that follow, so no single call has to pay for copying the whole map.
+	 * This method has a constant running time 
+	 * @param incrementalRehash true to spread each rehash across later operations
+	 */
+	public HashMap(boolean incrementalRehash) {
+		this.capacity = DEFAULT_CAPACITY;
+		map = new Table(capacity);
+		oldMap = null;
+		this.load = 0;
+		this.loadFactor = LOAD_FACTOR;
+		this.incrementalRehash = incrementalRehash;
+	}
+
+	/**
+	 * This constructor presizes the hashmap so that the expected number of entries fits
+	 * without a single rehash
+	 * This method has an O(capacity) running time to allocate the table
+	 * @param expectedEntries the number of entries the map is expected to hold
+	 * @param loadFactor the fraction of the capacity that may be used before the map doubles
+	 * @param incrementalRehash true to spread each rehash across later operations
+	 * @throws IllegalArgumentException if expectedEntries is negative or loadFactor is not between 0 and 1
+	 */
+	public HashMap(int expectedEntries, double loadFactor, boolean incrementalRehash) throws IllegalArgumentException {
+		if (expectedEntries < 0) {
+			throw new IllegalArgumentException("expected entries must not be negative");
+		}
+		if (!(loadFactor > 0 && loadFactor < 1)) {
+			throw new IllegalArgumentException("load factor must be between 0 and 1");
+		}
+		this.loadFactor = loadFactor;
+		this.capacity = capacityFor(expectedEntries);
+		map = new Table(capacity);
+		oldMap = null;
 		this.load = 0;
-		this.hashFactor = 1; 
+		this.incrementalRehash = incrementalRehash;
+	}
+
+	/**
+	 * This constructor presizes the hashmap, with the default rehashing
+	 * This method has an O(capacity) running time to allocate the table
+	 * @param expectedEntries the number of entries the map is expected to hold
+	 * @param loadFactor the fraction of the capacity that may be used before the map doubles
+	 * @throws IllegalArgumentException if expectedEntries is negative or loadFactor is not between 0 and 1
+	 */
+	public HashMap(int expectedEntries, double loadFactor) throws IllegalArgumentException {
+		this(expectedEntries, loadFactor, false);
 	}
-	
+
 	/**
 	 * This method determines whether a particular graphNode (key) is in the hashmap 
 	 * This method has a constant running time 
@@ -33,13 +104,10 @@ public class HashMap {
 	 * @return true if the graphNode is in the map, and false if the graphNode is not in the map 
 	 */
 	public boolean hasKey(GraphNode g) {
-		if (map[hashFunction(g)]==null || map[hashFunction(g)].getValue()==-1){
-			return false;
-		} else {
-			return true;
-		}
+		migrate();
+		return findEntry(g, hashFunction(g)) != null;
 	}
-	
+
 	/**
 	 * This method returns the value associated with a graphNode (key) if it is found 
 	 * This method has a constant running time 
@@ -47,103 +115,426 @@ public class HashMap {
 	 * @return the value associated with a graphNode key. -1 is returned if the key is not found 
 	 */
 	public int getValue(GraphNode g) {
-		if(this.hasKey(g)) {
-			return map[hashFunction(g)].getValue();
+		return getValue(g, hashFunction(g));
+	}
+
+	/**
+	 * This method returns the value associated with a graphNode (key) whose hash the caller has
+	 * already computed, so that a caller that needs the hash as well (like Cache) hashes the key once
+	 * This method has a constant running time
+	 * @param g the graphNode that you would like to get the value of
+	 * @param hash the hash of the graphNode, as returned by hashFunction
+	 * @return the value associated with a graphNode key. -1 is returned if the key is not found
+	 */
+	public int getValue(GraphNode g, int hash) {
+		migrate();
+		Entry e = findEntry(g, hash);
+		if (e != null) {
+			return e.getValue();
 		} else {
 			return -1; //key not found 
 		}
 	}
 
+	/**
+	 * This method returns the entry object of a key. While a rehash is in progress both tables are checked.
+	 * This method has a constant running time 
+	 * @param key the graphNode being searched for
+	 * @param hash the hash of the key
+	 * @return the entry of the key, or null if the key is not in the map
+	 */
+	private Entry findEntry(GraphNode key, int hash) {
+		if (definitelyAbsent(hash)) {
+			return null;
+		}
+		int slot = map.findSlot(key, hash);
+		if (slot != -1) {
+			return map.entries[slot];
+		}
+		if (oldMap != null) {
+			slot = oldMap.findSlot(key, hash);
+			if (slot != -1) {
+				return oldMap.entries[slot];
+			}
+		}
+		if (filter != null) {
+			filterFalsePositives++;
+		}
+		return null;
+	}
+
+	/**
+	 * This method asks the membership filter whether a key hash can be in the map
+	 * This method has a constant running time 
+	 * @param hash the hash of the key
+	 * @return true if the filter is on and the key is definitely not in the map
+	 */
+	private boolean definitelyAbsent(int hash) {
+		if (filter == null) {
+			return false;
+		}
+		filterChecks++;
+		if (!filter.mightContain(hash)) {
+			filterRejections++;
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * This method does two things: 1. it inserts a new entry object into the hashmap 
-	 * 2. It allows the value associated to a graphNode key to be changed when the method is called
-	 * by "remove". 
+	 * 2. It allows the value associated to a graphNode key to be changed when the key is already in the map.
+	 * The key is hashed only once, and the hash is stored next to the entry so that it never
+	 * has to be computed again when the map is rehashed.
 	 * This method has a constant running time 
 	 * @param key the graphNode 
 	 * @param value the index of the graphNode in the heap array 
 	 */
 	public void set(GraphNode key, int value) {
-		int index = hashFunction(key);
-		if(map[index]==null) {
-			map[index]= new Entry(key,value);
-			load++;
-		} else if(map[index].getKey().getId().equals(key.getId())){
-				map[index].setValue(value);
-		} 
-		
-		//Rehash if the number of elements exceeds 60% of the capacity 
-		if(((double)load/(double)capacity)>0.6) {
+		set(key, value, hashFunction(key));
+	}
+
+	/**
+	 * This method inserts or changes the value of a graphNode (key) whose hash the caller has
+	 * already computed
+	 * This method has a constant running time
+	 * @param key the graphNode
+	 * @param value the index of the graphNode in the heap array
+	 * @param hash the hash of the graphNode, as returned by hashFunction
+	 */
+	public void set(GraphNode key, int value, int hash) {
+		migrate();
+		Entry e = findEntry(key, hash);
+		if (e != null) {
+			e.setValue(value);
+			return;
+		}
+
+		//Rehash if the number of elements would exceed the load factor
+		if (((double)(load + 1)/(double)capacity) > loadFactor) {
 			rehash();
 		}
+		map.place(new Entry(key, value), hash);
+		addToFilter(hash);
+		load++;
 	}
-	
+
 	/**
-	 * This method is called when we want to remove an entry object from the hashMap 
+	 * This method is called when we want to remove an entry object from the hashMap.
+	 * The slot is freed with backward-shift deletion, so removed keys no longer count
+	 * towards the load and never lengthen a probe chain.
 	 * This method has a constant running time 
 	 * @param key the graphNode 
 	 */
 	public void remove (GraphNode key) {
-		//setting value to 0 indicates that the entry object is no longer in the map
-		this.set(key, 0);
+		migrate();
+		int hash = hashFunction(key);
+		if (definitelyAbsent(hash)) {
+			return;
+		}
+		int slot = map.findSlot(key, hash);
+		if (slot != -1) {
+			map.deleteAt(slot);
+			removed();
+			return;
+		}
+		if (oldMap != null) {
+			slot = oldMap.findSlot(key, hash);
+			if (slot != -1) {
+				oldMap.deleteAt(slot);
+				removed();
+			}
+		}
+	}
+
+	/**
+	 * This method does the bookkeeping after a key was removed. Once the removals reach half of the
+	 * keys the filter was sized for (capacity * loadFactor), the filter is rebuilt so that the removed
+	 * keys' bits go away. Counting against the size of the filter rather than the keys left means a
+	 * map that is emptied, or kept nearly empty, does not rebuild on almost every remove: each O(capacity)
+	 * rebuild is paid for by O(capacity) removals, and the stale bits never make the filter hold more
+	 * than 1.5 times the keys it was sized for.
+	 * This method has a constant amortized running time
+	 */
+	private void removed() {
+		load--;
+		if (filter != null && nextFilter == null) {
+			removedSinceBuild++;
+			if (removedSinceBuild > capacity * loadFactor * FILTER_REBUILD_FRACTION) {
+				buildFilter();
+			}
+		}
+	}
+
+	/**
+	 * This method returns the number of keys currently in the map
+	 * This method has a constant running time 
+	 * @return the number of keys in the map
+	 */
+	public int size() {
+		return load;
+	}
+
+	/**
+	 * This method turns the membership filter on or off. Turning it on builds it from the keys
+	 * already in the map; from then on it is resized along with the table.
+	 * This method has an O(n) running time when turning the filter on, constant otherwise
+	 * @param enabled true to put a filter in front of lookups
+	 */
+	public void setMembershipFilter(boolean enabled) {
+		if (enabled && filter == null) {
+			buildFilter();
+		} else if (!enabled) {
+			filter = null;
+			nextFilter = null;
+		}
 	}
 
 	/**
-	 * This is the method used to set the entry objects into the math. The ID of the graphNode
-	 * is first parsed into integers and added up, then it is used in a simple modulus function 
-	 * to obtain an index. Simple probing is done to find the next available slot. 
+	 * This method returns the number of lookups that asked the membership filter
 	 * This method has a constant running time 
+	 * @return the number of filter checks
+	 */
+	public long getFilterChecks() {
+		return filterChecks;
+	}
+
+	/**
+	 * This method returns the number of lookups the membership filter answered as definite misses
+	 * This method has a constant running time 
+	 * @return the number of lookups that skipped probing
+	 */
+	public long getFilterRejections() {
+		return filterRejections;
+	}
+
+	/**
+	 * This method returns the number of lookups of missing keys the membership filter let through
+	 * This method has a constant running time 
+	 * @return the number of false positives
+	 */
+	public long getFilterFalsePositives() {
+		return filterFalsePositives;
+	}
+
+	/**
+	 * This method adds a key hash to the membership filter, and to the one being built for the
+	 * new table if a rehash is in progress
+	 * This method has a constant running time 
+	 * @param hash the hash of the key
+	 */
+	private void addToFilter(int hash) {
+		if (filter != null) {
+			filter.add(hash);
+			if (nextFilter != null) {
+				nextFilter.add(hash);
+			}
+		}
+	}
+
+	/**
+	 * This method builds a new membership filter, sized for the current capacity, from every key in the map
+	 * This method has an O(capacity) running time
+	 */
+	private void buildFilter() {
+		filter = new BlockedBloomFilter((int) (capacity * loadFactor));
+		nextFilter = null;
+		removedSinceBuild = 0;
+		for (Table t : new Table[] {map, oldMap}) {
+			if (t != null) {
+				for (int i = 0; i < t.entries.length; i++) {
+					if (t.entries[i] != null) {
+						filter.add(t.hashes[i]);
+					}
+				}
+			}
+		}
+		if (oldMap != null) {
+			nextFilter = filter;
+		}
+	}
+
+	/**
+	 * This method computes the hash of a graphNode from its ID. The ID's String hash code is
+	 * run through the murmur3 finalizer so that IDs made of the same characters (anagrams,
+	 * IDs with the same digits) end up in very different slots.
+	 * This method has a constant running time (String caches its own hash code)
 	 * @param key the graphNode with its ID 
-	 * @return an index that is vacant
+	 * @return the mixed hash of the ID
 	 */
 	public int hashFunction(GraphNode key) {
-		int k = 0;
-		for (int i = 0; i < key.getId().length(); i++) {
-			if (key.getId().charAt(i) != '-') {
-				int c = key.getId().charAt(i);
-				if (Character.isLetter(c)) {
-					k += (int) c;
-				} else { 
-					k += c - 48;
-				}
+		return hash(key);
+	}
+
+	/**
+	 * This method does the work of hashFunction. It is static so that ConcurrentHashMap hashes
+	 * keys in exactly the same way.
+	 * This method has a constant running time
+	 * @param key the graphNode with its ID
+	 * @return the mixed hash of the ID
+	 */
+	static int hash(GraphNode key) {
+		int h = key.getId().hashCode();
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * This method inserts many keys at once. All of the keys are hashed in one pass (in parallel if
+	 * asked), the map is grown at most once to fit them, and then they are placed in a second pass.
+	 * A key that is already in the map, or that appears twice, keeps the last value given.
+	 * This method has an O(n) running time
+	 * @param keys the graphNodes
+	 * @param values the value of each graphNode, at the same index as in keys
+	 * @param parallel true to hash the keys on the common fork-join pool
+	 * @throws IllegalArgumentException if keys and values do not have the same length
+	 */
+	public void putAll(GraphNode[] keys, int[] values, boolean parallel) throws IllegalArgumentException {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException("keys and values must have the same length");
+		}
+		int[] keyHashes = new int[keys.length];
+		if (parallel) {
+			Arrays.parallelSetAll(keyHashes, i -> hashFunction(keys[i]));
+		} else {
+			for (int i = 0; i < keys.length; i++) {
+				keyHashes[i] = hashFunction(keys[i]);
 			}
 		}
-		int index = (k*hashFactor)%capacity;
-		
-		//start the probing process
-		boolean notHashed =true;
-		while(notHashed == true) { 
-			if(map[index]==null) {
-				return index;
-			} else if (map[index].getKey().getId().equals(key.getId())){
-				return index;
+
+		//grow once, straight to the final size, instead of doubling over and over
+		finishMigration();
+		int needed = capacityFor(load + keys.length);
+		if (needed > capacity) {
+			resize(needed);
+			finishMigration();
+		}
+		for (int i = 0; i < keys.length; i++) {
+			Entry e = findEntry(keys[i], keyHashes[i]);
+			if (e != null) {
+				e.setValue(values[i]);
 			} else { 
-				index++;//simple probing to find the next index that is vacant
-				if (index >= capacity) { //ensure the index doesn't go out of bounds
-					notHashed = false;
-				}
+				map.place(new Entry(keys[i], values[i]), keyHashes[i]);
+				addToFilter(keyHashes[i]);
+				load++;
 			}
 		}
-		return index;
 	}
-	
+
+	/**
+	 * This method inserts many keys at once, hashing them on the calling thread
+	 * This method has an O(n) running time
+	 * @param keys the graphNodes
+	 * @param values the value of each graphNode, at the same index as in keys
+	 * @throws IllegalArgumentException if keys and values do not have the same length
+	 */
+	public void putAll(GraphNode[] keys, int[] values) throws IllegalArgumentException {
+		putAll(keys, values, false);
+	}
+
+	/**
+	 * This method returns the smallest power of two capacity that holds a number of entries
+	 * without going over the load factor
+	 * This method has a constant running time 
+	 * @param entries the number of entries
+	 * @return the capacity
+	 */
+	private int capacityFor(int entries) {
+		int needed = 16;
+		while (needed < MAX_CAPACITY && (double) entries / (double) needed > loadFactor) {
+			needed = needed * 2;
+		}
+		return needed;
+	}
+
 	/**
 	 * This method is used to rehash the hashmap when it reaches its capacity and is starting
-	 * to slow down the normal hashmap functions 
+	 * to slow down the normal hashmap functions. The cached hashes are reused, so no key is hashed again.
+	 * In incremental mode this only allocates the new table and the entries are moved by migrate().
 	 * This method has a running time of O(n) as it is doubling the size of the hashMap
+	 * (O(capacity) to allocate the new table in incremental mode)
 	 */
 	public void rehash() {
-		load = 0;
-		capacity = capacity * 2;
-		Entry[] newMap = map;
-		map = new Entry[capacity];
-		//for loop to rehash everything into the new, larger map
-		for (int i=0; i< newMap.length ; i++) {
-			if (newMap[i]!=null) {
-				set(newMap[i].getKey(),newMap[i].getValue());
+		resize(capacity * 2);
+	}
+
+	/**
+	 * This method shrinks the table to the smallest capacity that holds the current entries,
+	 * so that a map that has had most of its keys removed gives the memory back
+	 * This method has a running time of O(n) (O(capacity) in incremental mode)
+	 */
+	public void trimToSize() {
+		int needed = capacityFor(load);
+		if (needed < capacity) {
+			resize(needed);
+		}
+	}
+
+	/**
+	 * This method moves the map into a table of a new capacity, all at once or incrementally
+	 * This method has a running time of O(n) (O(capacity) in incremental mode)
+	 * @param newCapacity the new capacity, a power of two
+	 */
+	private void resize(int newCapacity) {
+		//a rehash that is still in progress is finished first so that there are never three tables
+		finishMigration();
+		capacity = newCapacity;
+		oldMap = map;
+		map = new Table(capacity);
+		migrateIndex = 0;
+		if (filter != null) {
+			//the new filter is filled as entries move across, and replaces the old one when they all have
+			nextFilter = new BlockedBloomFilter((int) (capacity * loadFactor));
+		}
+		if (!incrementalRehash) {
+			finishMigration();
+		}
+	}
+
+	/**
+	 * This method moves a bounded number of slots from the old table to the new one while an
+	 * incremental rehash is in progress. Each step either skips an empty slot or moves one entry.
+	 * Entries are taken out of the old table with backward-shift deletion, so the entries that
+	 * are still waiting to be moved can always be found by a normal probe.
+	 * This method has a constant running time 
+	 */
+	private void migrate() {
+		if (oldMap == null) {
+			return;
+		}
+		for (int step = 0; step < MIGRATION_STEP && migrateIndex < oldMap.entries.length; step++) {
+			if (oldMap.entries[migrateIndex] == null) {
+				migrateIndex++;
+			} else { 
+				map.place(oldMap.entries[migrateIndex], oldMap.hashes[migrateIndex]);
+				if (nextFilter != null) {
+					nextFilter.add(oldMap.hashes[migrateIndex]);
+				}
+				oldMap.deleteAt(migrateIndex);
+			}
+		}
+		if (migrateIndex == oldMap.entries.length) {
+			oldMap = null;
+			if (nextFilter != null) {
+				filter = nextFilter;
+				nextFilter = null;
+				removedSinceBuild = 0;
 			}
 		}
-		
-		hashFactor = hashFactor * 2;
+	}
+
+	/**
+	 * This method moves every remaining entry of the old table across
+	 * This method has a running time of O(n)
+	 */
+	private void finishMigration() {
+		while (oldMap != null) {
+			migrate();
+		}
 	}
 
 	/**
@@ -151,12 +542,127 @@ public class HashMap {
 	 * This method has an O(n) running time as it goes through the whole array. 
 	 */
 	public String toString() {
-		String content = ""; 
-		for (int i = 0; i < map.length; i++) {
-			if (map[i] != null && map[i].getValue() != -1) {
-				content += "Index: " + i + "\t" + "Entry Object: " + map[i].toString() + "\n";
-			}
+		String content = map.toString();
+		if (oldMap != null) {
+			content += oldMap.toString();
 		}
 		return content;
 	}
+
+	/**
+	 * This is a single open-addressing table of entries. The hash of each key is cached in
+	 * a parallel array so that probing and rehashing never have to look at the key's ID.
+	 */
+	private static class Table {
+		private Entry[] entries; //the entry objects, the length is always a power of two
+		private int[] hashes; //the cached hash of the key stored in the same slot of entries
+		private int mask; //entries.length - 1, used in place of the modulus
+
+		/**
+		 * This is the constructor of the table
+		 * This method has an O(capacity) running time
+		 * @param capacity the number of slots, must be a power of two
+		 */
+		private Table(int capacity) {
+			entries = new Entry[capacity];
+			hashes = new int[capacity];
+			mask = capacity - 1;
+		}
+
+		/**
+		 * This method finds the slot that holds a key. Probing wraps around the end of the array, and
+		 * stops as soon as it reaches an empty slot or an entry that is closer to its home slot than the
+		 * key would be, since Robin Hood insertion would have placed the key before that entry.
+		 * This method has a constant expected running time
+		 * @param key the graphNode being searched for
+		 * @param hash the hash of the key
+		 * @return the slot holding the key, or -1 if the key is not in the table
+		 */
+		private int findSlot(GraphNode key, int hash) {
+			String id = key.getId();
+			int slot = hash & mask;
+			for (int distance = 0; ; distance++) {
+				Entry e = entries[slot];
+				if (e == null || probeDistance(hashes[slot], slot) < distance) {
+					return -1;
+				}
+				if (hashes[slot] == hash && (e.getKey() == key || e.getKey().getId().equals(id))) {
+					return slot;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		/**
+		 * This method places an entry that is not yet in the table using Robin Hood probing. Whenever
+		 * the entry being placed is further from home than the entry in the current slot, the two
+		 * trade places and probing continues with the entry that was displaced.
+		 * This method has a constant expected running time
+		 * @param entry the entry to be placed
+		 * @param hash the cached hash of the entry's key
+		 */
+		private void place(Entry entry, int hash) {
+			int slot = hash & mask;
+			int distance = 0;
+			while (entries[slot] != null) {
+				int existing = probeDistance(hashes[slot], slot);
+				if (existing < distance) {
+					Entry tempEntry = entries[slot];
+					int tempHash = hashes[slot];
+					entries[slot] = entry;
+					hashes[slot] = hash;
+					entry = tempEntry;
+					hash = tempHash;
+					distance = existing;
+				}
+				slot = (slot + 1) & mask;
+				distance++;
+			}
+			entries[slot] = entry;
+			hashes[slot] = hash;
+		}
+
+		/**
+		 * This method empties a slot with backward-shift deletion: every following entry that is not
+		 * in its home slot moves back by one, so no probe chain is ever broken by the empty slot.
+		 * This method has a constant expected running time
+		 * @param slot the slot to be emptied
+		 */
+		private void deleteAt(int slot) {
+			int next = (slot + 1) & mask;
+			while (entries[next] != null && probeDistance(hashes[next], next) > 0) {
+				entries[slot] = entries[next];
+				hashes[slot] = hashes[next];
+				slot = next;
+				next = (next + 1) & mask;
+			}
+			entries[slot] = null;
+			hashes[slot] = 0;
+		}
+
+		/**
+		 * This method returns how far a slot is from the home slot of a hash, wrapping around the array
+		 * This method has a constant running time
+		 * @param hash the hash of the entry
+		 * @param slot the slot the entry is stored in
+		 * @return the number of probes it took to reach the slot
+		 */
+		private int probeDistance(int hash, int slot) {
+			return (slot - (hash & mask)) & mask;
+		}
+
+		/**
+		 * This method lists every entry of the table
+		 * This method has an O(n) running time as it goes through the whole array.
+		 */
+		public String toString() {
+			String content = "";
+			for (int i = 0; i < entries.length; i++) {
+				if (entries[i] != null) {
+					content += "Index: " + i + "\t" + "Entry Object: " + entries[i].toString() + "\n";
+				}
+			}
+			return content;
+		}
+	}
 }
@@ -1,3 +1,6 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 /**
  * @author Jennifer Lee
  * jelee14108@brandeis.edu
@@ -5,25 +8,137 @@
  * Note to self:  Hashmap → gives index for the entry object to be stored in the hashmap array of entries
  * THE VALUE OF THE ENTRY OBJECT IS THE INDEX INTO THE HEAP ARRAY OF GRAPHNODES
  * access min and max element in O(1)
+ * A heap built with a NodeDictionary keeps the positions in an int[] indexed by the dense ID of
+ * each graph node instead of in the hashmap, so heapifying never has to touch the nodes' IDs.
+ * Callers that already hold dense IDs (such as a search over a CSRGraph) can use hasKey(int),
+ * insert(int, int), rebalance(int) and pullMinId(), which never hash a String at all.
+ * Nothing is allocated until the first insert. The heap array and the position map then double when
+ * they are full and halve when they are a quarter full, so small heaps stay cheap and large ones never fill up.
+ * A heap built with incrementalRehash has its hashmap move entries to a larger table a few at a time,
+ * so an insert that makes the map grow does not have to rehash every position at once.
+ * A heap built with membershipFilter turns on the hashmap's Bloom filter, so hasKey on a graphNode
+ * that is not in the heap (the common case in a search that checks before it inserts) rarely probes.
+ * The heap is binary by default, but any arity can be chosen: a 4- or 8-ary heap is shallower,
+ * and the children of a node sit next to each other in the array, which helps large heaps.
+ * Heapifying moves a "hole" instead of swapping, so each graphNode that moves is written
+ * (and its position recorded) once.
+ * Many graphNodes can be inserted at once with insertAll, which appends them and runs Floyd's
+ * bottom-up heapify in O(n) instead of doing n inserts in O(n log n).
  */
-public class Heap {
+public class Heap implements PriorityQueueBackend {
+
+	private static final GraphNode[] EMPTY = new GraphNode[0]; //the heap array before the first insert
+	private static final int MIN_CAPACITY = 16; //the heap array never shrinks below this
 
 	public GraphNode[] heap;
-	private int maxCapacity; 
+	private int capacityHint; //the number of elements the heap is expected to hold
+	private int arity; //the number of children of each node
 	private HashMap map;
+	private boolean incrementalRehash; //whether the hashmap spreads each of its rehashes across later operations
+	private boolean membershipFilter; //whether the hashmap puts a Bloom filter in front of its lookups
 	private int capacity; //keeps track of number of elements in the array
+	private NodeDictionary dictionary; //gives the dense ID of each graph node, null if the hashmap is used
+	private int[] ids; //the dense ID of the graph node at each index of the heap array
+	private int[] position; //the index in the heap array of each dense ID, -1 if that node is not in the heap
+	private boolean building; //true while insertAll heapifies, when positions are recorded afterwards in one pass
 	
 	/**
 	 * This is the constructor for the heap 
-	 * It creates a heap and at the same time initializes a new hashmap
+	 * The heap array and the hashmap are only created on the first insert
 	 * This method has a constant running time 
 	 */
 	public Heap() {
-		this.maxCapacity = 200000;
-		heap = new GraphNode[maxCapacity];
-		map = new HashMap();
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * This is the constructor for a heap that is expected to hold a certain number of elements.
+	 * The first insert allocates room for that many, so a heap that stays within its hint never grows.
+	 * This method has a constant running time
+	 * @param capacityHint the number of elements the heap is expected to hold
+	 */
+	public Heap(int capacityHint) {
+		this(capacityHint, 2);
+	}
+
+	/**
+	 * This is the constructor for a d-ary heap that is expected to hold a certain number of elements
+	 * This method has a constant running time
+	 * @param capacityHint the number of elements the heap is expected to hold
+	 * @param arity the number of children of each node, at least 2
+	 * @throws IllegalArgumentException if the arity is less than 2
+	 */
+	public Heap(int capacityHint, int arity) throws IllegalArgumentException {
+		this(capacityHint, arity, false);
+	}
+
+	/**
+	 * This is the constructor for a d-ary heap whose hashmap can rehash incrementally
+	 * This method has a constant running time
+	 * @param capacityHint the number of elements the heap is expected to hold
+	 * @param arity the number of children of each node, at least 2
+	 * @param incrementalRehash true to spread each rehash of the hashmap across later operations
+	 * @throws IllegalArgumentException if the arity is less than 2
+	 */
+	public Heap(int capacityHint, int arity, boolean incrementalRehash) throws IllegalArgumentException {
+		this(capacityHint, arity, incrementalRehash, false);
+	}
+
+	/**
+	 * This is the constructor for a d-ary heap that chooses how its hashmap rehashes and whether
+	 * the hashmap has a membership filter
+	 * This method has a constant running time
+	 * @param capacityHint the number of elements the heap is expected to hold
+	 * @param arity the number of children of each node, at least 2
+	 * @param incrementalRehash true to spread each rehash of the hashmap across later operations
+	 * @param membershipFilter true to answer most hasKey calls for missing graphNodes with the hashmap's filter
+	 * @throws IllegalArgumentException if the arity is less than 2
+	 */
+	public Heap(int capacityHint, int arity, boolean incrementalRehash, boolean membershipFilter) throws IllegalArgumentException {
+		if (arity < 2) {
+			throw new IllegalArgumentException("arity must be at least 2");
+		}
+		this.capacityHint = Math.max(capacityHint, MIN_CAPACITY);
+		this.arity = arity;
+		this.incrementalRehash = incrementalRehash;
+		this.membershipFilter = membershipFilter;
+		heap = EMPTY;
 		this.capacity= 0;
 	}
+
+	/**
+	 * This is the constructor for a heap that finds its graphNodes through a node dictionary.
+	 * Nodes that are inserted without being interned first are interned on the way in.
+	 * This method has a constant running time
+	 * @param dictionary the dictionary giving each graphNode a dense ID
+	 */
+	public Heap(NodeDictionary dictionary) {
+		this(dictionary, MIN_CAPACITY);
+	}
+
+	/**
+	 * This is the constructor for a heap that finds its graphNodes through a node dictionary
+	 * and is expected to hold a certain number of elements
+	 * This method has a constant running time
+	 * @param dictionary the dictionary giving each graphNode a dense ID
+	 * @param capacityHint the number of elements the heap is expected to hold
+	 */
+	public Heap(NodeDictionary dictionary, int capacityHint) {
+		this(dictionary, capacityHint, 2);
+	}
+
+	/**
+	 * This is the constructor for a d-ary heap that finds its graphNodes through a node dictionary
+	 * This method has a constant running time
+	 * @param dictionary the dictionary giving each graphNode a dense ID
+	 * @param capacityHint the number of elements the heap is expected to hold
+	 * @param arity the number of children of each node, at least 2
+	 * @throws IllegalArgumentException if the arity is less than 2
+	 */
+	public Heap(NodeDictionary dictionary, int capacityHint, int arity) throws IllegalArgumentException {
+		this(capacityHint, arity);
+		this.dictionary = dictionary;
+	}
 	
 	/**
 	 * This method returns the index of the parent node of a child node
@@ -32,27 +147,27 @@ public class Heap {
 	 * @return the index of the parent node 
 	 */
 	public int getParent(int index) {
-		return (index-1)/2;
+		return (index-1)/arity;
 	}
 
 	/**
-	 * This method returns the index of the left child of a parent node 
+	 * This method returns the index of the left (first) child of a parent node 
 	 * This method has a constant running time 
 	 * @param index of the parent node 
 	 * @return the index of the left child
 	 */
 	public int getLeftChild(int index) {
-		return 2*index+1;
+		return arity*index+1;
 	}
 
 	/**
-	 * This method returns the index of the right child of a parent node 
+	 * This method returns the index of the right (last) child of a parent node 
 	 * This method has a constant running time 
 	 * @param index of the parent node 
 	 * @return the index of the right child
 	 */
 	public int getRightChild(int index) {
-		return 2*index+2;
+		return arity*index+arity;
 	}
 	
 	/**
@@ -62,10 +177,10 @@ public class Heap {
 	 * @return the left child graphNode object of the parent 
 	 */
 	public GraphNode getLeftNode (int index) {
-		if (index == 0) {
-			return heap[1];
+		if (getLeftChild(index) >= capacity) {
+			return null;
 		}
-		return heap[index*2+1];
+		return heap[getLeftChild(index)];
 	}
 	
 	/**
@@ -75,10 +190,10 @@ public class Heap {
 	 * @return the right child graphNode object of the parent 
 	 */
 	public GraphNode getRightNode (int index) {
-		if (index == 0) {
-			return heap[2];
+		if (getRightChild(index) >= capacity) {
+			return null;
 		}
-		return heap[index*2+2];
+		return heap[getRightChild(index)];
 	}
 	
 	/**
@@ -91,10 +206,7 @@ public class Heap {
 		if (index == 0) { 
 			return null;
 		}
-		if (index % 2 == 0) { 
-			return heap[(int) Math.floor(index/2) -1];
-		}
-		return heap[(int) Math.floor(index/2)];
+		return heap[getParent(index)];
 	}
 	
 	/**
@@ -105,7 +217,23 @@ public class Heap {
 	 * @return true if the map contains the key, false otherwise. 
 	 */
 	public boolean hasKey (GraphNode g) {
-		return map.hasKey(g);
+		if (dictionary == null) {
+			return map != null && map.hasKey(g);
+		}
+		return hasKey(dictionary.getId(g));
+	}
+
+	/**
+	 * This method returns a boolean value indicating whether the heap contains
+	 * the graphNode with a certain dense ID
+	 * This method has a constant running time
+	 * @param id the dense ID of the graphNode
+	 * @return true if the graphNode is in the heap, false otherwise
+	 * @throws IllegalStateException if the heap has no node dictionary
+	 */
+	public boolean hasKey(int id) throws IllegalStateException {
+		requireDictionary();
+		return id >= 0 && position != null && id < position.length && position[id] != -1;
 	}
 	
 	/**
@@ -114,27 +242,168 @@ public class Heap {
 	 * @return true if the heap is empty, false otherwise. 
 	 */
 	public boolean isEmpty() {
-		if (capacity == 0 && heap[capacity] == null) {
+		if (capacity == 0) {
 			return true;
 		}
 		return false; 
 	}
 	
 	/**
-	 * This method inserts an element into the heap 
-	 * This method has a O(logn) running time 
+	 * This method returns the number of elements in the heap
+	 * This method has a constant running time
+	 * @return the number of elements
+	 */
+	public int size() {
+		return capacity;
+	}
+
+	/**
+	 * This method inserts an element into the heap, growing the heap array if it is full
+	 * This method has a O(logn) amortized running time 
 	 * @param g the graphNode that is being inserted into the heap 
-	 * @throws IllegalStateException an exception is thrown if one tries to insert 
-	 * a new graphNode into an already full heap 
-	 */
-	public void insert(GraphNode g) throws IllegalStateException {
-		if (capacity != maxCapacity) {
-			heap[capacity]=g;
-			map.set(g, capacity);
-			capacity++;
-			heapifyUp(g, map.getValue(g));
+	 */
+	public void insert(GraphNode g) {
+		insert(g, dictionary == null ? -1 : dictionary.intern(g));
+	}
+
+	/**
+	 * This method sets the priority of the graphNode with a certain dense ID and inserts it into the heap
+	 * This method has a O(logn) amortized running time
+	 * @param id the dense ID of the graphNode, which must already be interned
+	 * @param priority the priority of the graphNode
+	 * @throws IllegalStateException if the heap has no node dictionary
+	 */
+	public void insert(int id, int priority) throws IllegalStateException {
+		requireDictionary();
+		GraphNode g = dictionary.getNode(id);
+		g.priority = priority;
+		insert(g, id);
+	}
+
+	/**
+	 * This method does the work of both inserts
+	 * This method has a O(logn) amortized running time
+	 * @param g the graphNode that is being inserted into the heap
+	 * @param id the dense ID of the graphNode, ignored without a node dictionary
+	 */
+	private void insert(GraphNode g, int id) {
+		if (capacity == heap.length) {
+			resize(heap.length == 0 ? capacityHint : heap.length * 2);
+		}
+		if (dictionary != null && id >= position.length) {
+			int oldLength = position.length;
+			position = Arrays.copyOf(position, Math.max(id + 1, Math.max(oldLength * 2, MIN_CAPACITY)));
+			Arrays.fill(position, oldLength, position.length, -1);
+		}
+		capacity++;
+		siftUp(g, id, capacity-1);
+	}
+
+	/**
+	 * This method inserts many graphNodes at once. They are appended to the heap array and the
+	 * whole array is heapified bottom up (Floyd's method), and then every position is recorded in
+	 * one pass. If the heap already holds more graphNodes than are being added, they are inserted
+	 * one at a time instead, since that is cheaper than heapifying the whole array again.
+	 * This method has an O(n) running time, where n is the size of the heap afterwards
+	 * @param nodes the graphNodes being inserted
+	 */
+	public void insertAll(GraphNode[] nodes) {
+		insertAll(nodes, false);
+	}
+
+	/**
+	 * This method inserts many graphNodes at once, optionally heapifying in parallel. The subtrees
+	 * under the nodes of one level of the heap do not overlap, so every level is heapified in
+	 * parallel, from the bottom level up, and the hashmap is filled with putAll.
+	 * This method has an O(n) running time, where n is the size of the heap afterwards
+	 * @param nodes the graphNodes being inserted
+	 * @param parallel true to heapify on the common fork/join pool, which pays off for very large heaps
+	 */
+	public void insertAll(GraphNode[] nodes, boolean parallel) {
+		if (nodes.length == 0) {
+			return;
+		}
+		if (nodes.length < capacity) {
+			for (GraphNode g : nodes) {
+				insert(g);
+			}
+			return;
+		}
+		int total = capacity + nodes.length;
+		if (total > heap.length) {
+			resize(Math.max(total, heap.length == 0 ? capacityHint : heap.length * 2));
+		}
+		if (dictionary != null) {
+			for (int i = 0; i < nodes.length; i++) {
+				int id = dictionary.intern(nodes[i]);
+				if (id >= position.length) {
+					int oldLength = position.length;
+					position = Arrays.copyOf(position, Math.max(id + 1, Math.max(oldLength * 2, MIN_CAPACITY)));
+					Arrays.fill(position, oldLength, position.length, -1);
+				}
+				ids[capacity + i] = id;
+			}
+		}
+		System.arraycopy(nodes, 0, heap, capacity, nodes.length);
+		capacity = total;
+
+		//positions are recorded after heapifying, so the sifts only move graphNodes (and IDs) around
+		building = true;
+		int lastParent = getParent(capacity - 1);
+		if (parallel) {
+			//the first index of every level, so the levels can be heapified from the bottom up
+			int[] levels = new int[32];
+			int depth = 0;
+			while (levels[depth] <= lastParent) {
+				levels[depth + 1] = levels[depth] * arity + 1;
+				depth++;
+			}
+			for (int level = depth - 1; level >= 0; level--) {
+				IntStream.range(levels[level], Math.min(levels[level + 1], lastParent + 1)).parallel()
+						.forEach(i -> siftDown(heap[i], dictionary == null ? -1 : ids[i], i));
+			}
+		} else {
+			for (int i = lastParent; i >= 0; i--) {
+				siftDown(heap[i], dictionary == null ? -1 : ids[i], i);
+			}
+		}
+		building = false;
+
+		if (dictionary == null) {
+			int[] indexes = new int[capacity];
+			for (int i = 0; i < capacity; i++) {
+				indexes[i] = i;
+			}
+			map.putAll(Arrays.copyOf(heap, capacity), indexes, parallel);
 		} else {
-			throw new IllegalStateException ("heap capacity reached");
+			for (int i = 0; i < capacity; i++) {
+				position[ids[i]] = i;
+			}
+		}
+	}
+
+	/**
+	 * This method moves the heap into an array of a new length. On the first call it also creates
+	 * the hashmap (or the position array), sized for the same number of elements. When the heap
+	 * shrinks, the hashmap is trimmed along with it.
+	 * This method has an O(n) running time, which is amortized over the inserts or removes that led to it
+	 * @param length the new length of the heap array
+	 */
+	private void resize(int length) {
+		if (heap.length == 0) {
+			if (dictionary == null) {
+				map = new HashMap(length, 0.6, incrementalRehash);
+				map.setMembershipFilter(membershipFilter);
+			} else {
+				position = new int[Math.max(dictionary.size(), MIN_CAPACITY)];
+				Arrays.fill(position, -1);
+			}
+		} else if (length < heap.length && map != null) {
+			map.trimToSize();
+		}
+		heap = Arrays.copyOf(heap, length);
+		if (dictionary != null) {
+			ids = ids == null ? new int[length] : Arrays.copyOf(ids, length);
 		}
 	}
 	
@@ -145,7 +414,16 @@ public class Heap {
 	 * @param g the graphNode either being removed or having its priority changed 
 	 */
 	public void heapifyDirection(GraphNode g) {
-		int index = map.getValue(g);
+		heapifyDirection(g, indexOf(g));
+	}
+
+	/**
+	 * This method does the work of heapifyDirection for a graphNode whose index is already known
+	 * This method has a O(logn) running time
+	 * @param g the graphNode either being removed or having its priority changed
+	 * @param index the current index of the graphNode
+	 */
+	private void heapifyDirection(GraphNode g, int index) {
 		if(heap[index].priority<heap[getParent(index)].priority) {
 			heapifyUp(g,index);
 		} else {
@@ -154,45 +432,167 @@ public class Heap {
 	}
 
 	/**
-	 * This method moves a graphNode  up the heap based on its priority (if necessary)
-	 * This method has an O(logn) running time 
+	 * This method restores the heap after the priority of a graphNode changed, by calling heapifyDirection
+	 * This method has a O(logn) running time
+	 * @param g the graphNode whose priority changed
+	 */
+	public void rebalance(GraphNode g) {
+		heapifyDirection(g);
+	}
+
+	/**
+	 * This method restores the heap after the priority of the graphNode with a certain dense ID changed
+	 * This method has a O(logn) running time
+	 * @param id the dense ID of the graphNode whose priority changed, which must be in the heap
+	 * @throws IllegalStateException if the heap has no node dictionary
+	 */
+	public void rebalance(int id) throws IllegalStateException {
+		requireDictionary();
+		int index = position[id];
+		heapifyDirection(heap[index], index);
+	}
+
+	/**
+	 * This method removes the highest priority element and returns it
+	 * This method has a O(logn) running time
+	 * @return the graphNode with the smallest priority
+	 */
+	public GraphNode pullMin() {
+		GraphNode min = heap[0];
+		remove();
+		return min;
+	}
+
+	/**
+	 * This method removes the highest priority element and returns its dense ID
+	 * This method has a O(logn) running time
+	 * @return the dense ID of the graphNode with the smallest priority
+	 * @throws IllegalStateException if the heap has no node dictionary
+	 */
+	public int pullMinId() throws IllegalStateException {
+		requireDictionary();
+		int min = ids[0];
+		remove();
+		return min;
+	}
+
+	/**
+	 * This method moves a graphNode  up the heap based on its priority (if necessary).
+	 * Parents with a larger priority are moved down into the hole, and the graphNode is
+	 * written once, where it finally belongs.
+	 * This method has an O(log n) running time 
 	 * @param g the graphNode being heapified up 
 	 * @param index the current index of the graphNode 
 	 */
 	public void heapifyUp(GraphNode g,int index) {
-		while(index>0 && heap[index].priority<heap[getParent(index)].priority) {
-			map.set(g, getParent(index));
-			map.set(heap[getParent(index)], index);
-			GraphNode temp = heap[index];
-			heap[index]=heap[getParent(index)];
-			heap[getParent(index)]=temp;
-			index= getParent(index);
+		siftUp(g, dictionary == null ? -1 : ids[index], index);
+	}
+
+	/**
+	 * This method does the work of heapifyUp for a graphNode that may not be in the heap array yet
+	 * This method has an O(log n) running time
+	 * @param g the graphNode being heapified up
+	 * @param id the dense ID of the graphNode, ignored without a node dictionary
+	 * @param index the index of the hole the graphNode starts in
+	 */
+	private void siftUp(GraphNode g, int id, int index) {
+		while(index>0) {
+			int parent = getParent(index);
+			if (heap[parent].priority <= g.priority) {
+				break;
+			}
+			place(index, heap[parent], dictionary == null ? -1 : ids[parent]);
+			index = parent;
 		}
+		place(index, g, id);
 	}
 
 	/**
-	 * This method moves a graphNode down the heap based on its priority (if necessary)
-	 * This method has a O(logn) running time 
+	 * This method moves a graphNode down the heap based on its priority (if necessary).
+	 * The smallest child is moved up into the hole as long as it is smaller than the graphNode,
+	 * and the graphNode is written once, where it finally belongs.
+	 * This method has a O(d log n / log d) running time for a d-ary heap
 	 * @param g the graphNode being heapified down 
 	 * @param index the current index of the graphNode 
 	 */
 	public void heapifyDown(GraphNode g,int index) {
-		int leftChild = getLeftChild(index);
-		int rightChild = getRightChild(index);
-		int smallest = index;
-		if (leftChild <capacity && heap[leftChild].priority<heap[index].priority) {
-			smallest = leftChild;
+		siftDown(g, dictionary == null ? -1 : ids[index], index);
+	}
+
+	/**
+	 * This method does the work of heapifyDown for a graphNode that may not be in the heap array yet
+	 * This method has a O(d log n / log d) running time for a d-ary heap
+	 * @param g the graphNode being heapified down
+	 * @param id the dense ID of the graphNode, ignored without a node dictionary
+	 * @param index the index of the hole the graphNode starts in
+	 */
+	private void siftDown(GraphNode g, int id, int index) {
+		while (true) {
+			int first = getLeftChild(index);
+			if (first >= capacity || first < 0) {
+				break;
+			}
+			int last = Math.min(first + arity, capacity);
+			int smallest = first;
+			for (int child = first + 1; child < last; child++) {
+				if (heap[child].priority < heap[smallest].priority) {
+					smallest = child;
+				}
+			}
+			if (heap[smallest].priority >= g.priority) {
+				break;
+			}
+			place(index, heap[smallest], dictionary == null ? -1 : ids[smallest]);
+			index = smallest;
 		}
-		if (rightChild <capacity&&heap[rightChild ].priority<heap[smallest].priority) {
-			smallest = rightChild;
+		place(index, g, id);
+	}
+
+	/**
+	 * This method checks that the heap was built with a node dictionary, which the methods taking
+	 * dense IDs need
+	 * This method has a constant running time
+	 * @throws IllegalStateException if the heap has no node dictionary
+	 */
+	private void requireDictionary() throws IllegalStateException {
+		if (dictionary == null) {
+			throw new IllegalStateException("dense IDs need a heap built with a NodeDictionary");
 		}
-		if (smallest != index) {
-			GraphNode temp = heap[index];
-			map.set(g , smallest);
-			map.set(heap[smallest] , index);
-			heap[index]=heap[smallest];
-			heap[smallest] = temp;
-			heapifyDown(g ,smallest);
+	}
+
+	/**
+	 * This method returns the index of a graphNode in the heap array
+	 * This method has a constant running time
+	 * @param g the graphNode, which must be in the heap
+	 * @return the index of the graphNode
+	 */
+	private int indexOf(GraphNode g) {
+		if (dictionary == null) {
+			return map.getValue(g);
+		}
+		return position[dictionary.getId(g)];
+	}
+
+	/**
+	 * This method writes a graphNode into the heap array and records its index,
+	 * either in the hashmap or, with a node dictionary, in the position array
+	 * (during insertAll only the ID is written, and the positions are recorded afterwards)
+	 * This method has a constant running time
+	 * @param index the index the graphNode is written to
+	 * @param g the graphNode
+	 * @param id the dense ID of the graphNode, ignored without a node dictionary
+	 */
+	private void place(int index, GraphNode g, int id) {
+		heap[index]=g;
+		if (building) {
+			if (dictionary != null) {
+				ids[index]=id;
+			}
+		} else if (dictionary == null) {
+			map.set(g, index);
+		} else {
+			ids[index]=id;
+			position[id]=index;
 		}
 	}
 
@@ -202,15 +602,21 @@ public class Heap {
 	 * This method has a O(logn) running time 
 	 */
 	public void remove(){
-		if(capacity==1) {
-			heap[0]=null;
-			capacity--;
-		} else {
-			heap[0] = heap[capacity-1];
-			heap[capacity-1]=null;
+		if (dictionary == null) {
 			map.remove(heap[0]);
-			capacity--;
-			heapifyDown(heap[0],0);
+		} else {
+			position[ids[0]] = -1;
+		}
+		capacity--;
+		GraphNode last = heap[capacity];
+		int lastId = dictionary == null ? -1 : ids[capacity];
+		heap[capacity]=null;
+		if (capacity > 0) {
+			//the last graphNode is sifted down from the hole left at the root
+			siftDown(last, lastId, 0);
+		}
+		if (capacity < heap.length / 4 && heap.length > capacityHint) {
+			resize(Math.max(heap.length / 2, capacityHint));
 		}
 	}
 }
@@ -0,0 +1,259 @@
+/**
+ * This is an array implementation of a Queue of ints, for BFS frontiers of dense node IDs
+ * It works like Queue (a power-of-two ring with head and tail counters, growing when it is
+ * unbounded and refusing elements when it is bounded and full), but the elements are stored in an
+ * int[], so nothing is boxed and enqueueing and dequeueing never allocate once the array is big enough.
+ * Like Queue, it takes no lock and is meant to be owned by one thread (there is no SynchronizedQueue for it).
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class IntQueue {
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private int[] Q;
+	private int mask; //Q.length - 1
+	private int head; //number of elements ever dequeued
+	private int tail; //number of elements ever enqueued
+	private int limit; //the most elements the queue may hold
+	private boolean bounded;
+
+	/**
+	 * The constructor creates an unbounded queue with room for a number of elements
+	 * before its array has to grow
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements expected
+	 */
+	public IntQueue(int size) {
+		this(size, false);
+	}
+
+	/**
+	 * The constructor creates a queue that is either unbounded (growing past size when it has to)
+	 * or bounded (holding at most size elements)
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements expected, or the limit of a bounded queue
+	 * @param bounded true to never hold more than size elements
+	 * @throws IllegalArgumentException if a bounded queue is given a size less than 1 or over 2^30
+	 */
+	public IntQueue(int size, boolean bounded) throws IllegalArgumentException {
+		if (bounded && (size < 1 || size > MAX_CAPACITY)) {
+			throw new IllegalArgumentException("the limit of a bounded queue must be between 1 and " + MAX_CAPACITY);
+		}
+		int capacity = MIN_CAPACITY;
+		while (capacity < size && capacity < MAX_CAPACITY) {
+			capacity = capacity * 2;
+		}
+		Q = new int[capacity];
+		mask = capacity - 1;
+		this.bounded = bounded;
+		limit = bounded ? size : MAX_CAPACITY;
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue
+	 * This method has a constant amortized running time
+	 * @param data to be inserted into the queue
+	 * @throws IllegalStateException if the queue is bounded and full
+	 */
+	public void enqueue(int data) throws IllegalStateException {
+		if (!offer(data)) {
+			throw new IllegalStateException("the queue is full");
+		}
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue if there is room for it
+	 * This method has a constant amortized running time
+	 * @param data to be inserted into the queue
+	 * @return true if the element was added, false if the queue is bounded and full
+	 */
+	public boolean offer(int data) {
+		int size = tail - head;
+		if (size == limit) {
+			return false;
+		}
+		if (size == Q.length) {
+			grow(size + 1);
+		}
+		Q[tail & mask] = data;
+		tail++;
+		return true;
+	}
+
+	/**
+	 * This method adds a run of an array to the end of the queue, all or nothing
+	 * This method has an O(length) amortized running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @throws IllegalStateException if the queue is bounded and does not have room for all of them
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public void enqueueAll(int[] items, int offset, int length) throws IllegalStateException, IndexOutOfBoundsException {
+		if (length > limit - (tail - head)) {
+			throw new IllegalStateException("the queue does not have room for " + length + " more elements");
+		}
+		offerAll(items, offset, length);
+	}
+
+	/**
+	 * This method adds as much of a run of an array to the end of the queue as there is room for
+	 * This method has an O(length) amortized running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @return the number of elements added, which is less than length only if the queue is bounded
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public int offerAll(int[] items, int offset, int length) throws IndexOutOfBoundsException {
+		if (offset < 0 || length < 0 || offset > items.length - length) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " do not fit in " + items.length);
+		}
+		int size = tail - head;
+		int count = Math.min(length, limit - size);
+		if (size + count > Q.length) {
+			grow(size + count);
+		}
+		int start = tail & mask;
+		int firstPart = Math.min(count, Q.length - start);
+		System.arraycopy(items, offset, Q, start, firstPart);
+		System.arraycopy(items, offset + firstPart, Q, 0, count - firstPart);
+		tail += count;
+		return count;
+	}
+
+	/**
+	 * This method takes off the first item of the queue and returns it
+	 * This method has a constant running time
+	 * @return element at the front of the queue
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	public int dequeue() throws IllegalStateException {
+		if (tail == head) {
+			throw new IllegalStateException("there are no more elements to dequeue");
+		}
+		int firstItem = Q[head & mask];
+		head++;
+		return firstItem;
+	}
+
+	/**
+	 * This method returns the first item of the queue without taking it off
+	 * This method has a constant running time
+	 * @return element at the front of the queue
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	public int peek() throws IllegalStateException {
+		if (tail == head) {
+			throw new IllegalStateException("the queue is empty");
+		}
+		return Q[head & mask];
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue into an array
+	 * This method has an O(max) running time
+	 * @param items the array the elements are copied into
+	 * @param offset the index the first element is copied to
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
+	 * @throws IndexOutOfBoundsException if max elements would not fit in the array
+	 */
+	public int drainTo(int[] items, int offset, int max) throws IndexOutOfBoundsException {
+		if (offset < 0 || max < 0 || offset > items.length - max) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and max " + max + " do not fit in " + items.length);
+		}
+		int count = Math.min(max, tail - head);
+		int start = head & mask;
+		int firstPart = Math.min(count, Q.length - start);
+		System.arraycopy(Q, start, items, offset, firstPart);
+		System.arraycopy(Q, 0, items, offset + firstPart, count - firstPart);
+		head += count;
+		return count;
+	}
+
+	/**
+	 * This method removes every element, keeping the array, so a BFS can reuse the queue for the next level
+	 * This method has a constant running time
+	 */
+	public void clear() {
+		head = 0;
+		tail = 0;
+	}
+
+	/**
+	 * This method returns the current number of elements in the queue
+	 * This method has a constant running time
+	 * @return the current size of the queue
+	 */
+	public int getSize() {
+		return tail - head;
+	}
+
+	/**
+	 * This method returns true if the queue is empty
+	 * This method has a constant running time
+	 * @return boolean value
+	 */
+	public boolean isEmpty() {
+		return tail == head;
+	}
+
+	/**
+	 * This method returns true if the queue is full, which only a bounded queue ever is
+	 * This method has a constant running time
+	 * @return boolean value
+	 */
+	public boolean isFull() {
+		return tail - head == limit;
+	}
+
+	/**
+	 * This method returns whether the queue is bounded
+	 * This method has a constant running time
+	 * @return true if the queue never holds more than its limit, false if it grows
+	 */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	/**
+	 * This is the toString method of the IntQueue class. It prints out all the items stored in the queue,
+	 * from the front to the end.
+	 * This method has a running time of O(n)
+	 */
+	public String toString() {
+		if (tail == head) {
+			return "none";
+		}
+		StringBuilder allQ = new StringBuilder();
+		for (int i = head; i != tail; i++) {
+			allQ.append(Q[i & mask]).append(" ");
+		}
+		return allQ.toString();
+	}
+
+	/**
+	 * This method grows the array to the smallest power of two that holds a number of elements,
+	 * moving the elements so that the front is at slot 0 again
+	 * This method has an O(n) running time, which is amortized over the enqueues that filled the array
+	 * @param needed the number of elements the array must hold
+	 */
+	private void grow(int needed) {
+		int size = tail - head;
+		int length = Q.length;
+		while (length < needed) {
+			length = length * 2;
+		}
+		int[] larger = new int[length];
+		int start = head & mask;
+		int firstPart = Math.min(size, Q.length - start);
+		System.arraycopy(Q, start, larger, 0, firstPart);
+		System.arraycopy(Q, 0, larger, firstPart, size - firstPart);
+		Q = larger;
+		mask = length - 1;
+		head = 0;
+		tail = size;
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * This is the least-recently-used eviction policy for the Cache class
+ * Entries are kept in a list ordered by their last use, and the entry at the end is evicted.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class LRUPolicy implements EvictionPolicy {
+	private SlotList.Links links;
+	private SlotList order; //most recently used first
+
+	/**
+	 * The constructor creates an empty policy
+	 * This method has a constant running time
+	 */
+	public LRUPolicy() {
+		links = new SlotList.Links(0);
+		order = new SlotList(links);
+	}
+
+	/**
+	 * This method grows the links of the recency list to a new number of slots
+	 * This method has an O(capacity) running time, which is amortized over the inserts that filled the cache
+	 * @param capacity the new number of slots
+	 */
+	public void resize(int capacity) {
+		links.resize(capacity);
+	}
+
+	/**
+	 * This method puts a new entry at the front of the recency list
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key, not used by this policy
+	 */
+	public void recordInsert(int slot, int keyHash) {
+		order.addFirst(slot);
+	}
+
+	/**
+	 * This method moves a used entry to the front of the recency list
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key, not used by this policy
+	 */
+	public void recordAccess(int slot, int keyHash) {
+		order.moveToFront(slot);
+	}
+
+	/**
+	 * This method does nothing, since a key that is not cached has no place in the recency list
+	 * This method has a constant running time
+	 * @param keyHash the hash of the key
+	 */
+	public void recordMiss(int keyHash) {
+	}
+
+	/**
+	 * This method unlinks an entry that left the cache from the recency list
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 */
+	public void recordRemoval(int slot) {
+		order.remove(slot);
+	}
+
+	/**
+	 * This method chooses the least recently used entry
+	 * This method has a constant running time
+	 * @return the slot at the end of the recency list
+	 */
+	public int selectVictim() {
+		return order.peekLast();
+	}
+}
@@ -0,0 +1,602 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is a bounded lock-free queue for any number of producer and consumer threads, which can be
+ * handed straight to a ThreadPoolExecutor (or anything else that takes a BlockingQueue)
+ * The array is a power-of-two ring like Queue's, with tail and head counters, but every slot also
+ * has a sequence number (Vyukov's design). A slot is free for the enqueue with ticket t when its
+ * sequence is t, and holds the element for the dequeue with ticket t when its sequence is t + 1.
+ * A producer claims a ticket with a compare-and-set on tail, writes the element, and releases the
+ * slot by setting its sequence to t + 1; a consumer claims a ticket on head, reads the element, and
+ * hands the slot to the next lap by setting its sequence to t + capacity. So producers only ever
+ * contend with producers and consumers with consumers, each on one counter.
+ * offer and poll never block. put and take (and the timed offer and poll) spin for a moment and
+ * then park on a condition. A producer or consumer only takes the lock to wake someone when a
+ * thread is actually parked, so the lock costs nothing while the queue is neither empty nor full.
+ * Batches are claimed with one compare-and-set for the whole run of slots (offerAll and drainTo),
+ * though each slot's sequence is still released on its own, since consumers wait on them one by one.
+ * null cannot be enqueued. The iterator walks a snapshot of the queue.
+ * Elements can also be taken out of the middle (remove(Object), and the iterator's remove, which a
+ * ThreadPoolExecutor uses to drop cancelled tasks). The element's slot is swapped for a TOMBSTONE
+ * with a compare-and-set, and consumers skip tombstones when they reach them, so removing never
+ * moves other elements or blocks producers and consumers. Consumers take each element out of its
+ * slot with an atomic swap, so an element is either consumed or removed, never both. Until a
+ * consumer passes it, a tombstone still takes up its slot, but it is not counted by size.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class MPMCQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int SPINS = 64; //failed attempts before a blocking call parks
+	private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+	private static final Object TOMBSTONE = new Object(); //left in the slot of an element that was removed
+	private static final VarHandle COUNTER;
+
+	static {
+		try {
+			COUNTER = MethodHandles.lookup().findVarHandle(CounterValue.class, "value", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Object[] Q;
+	private final long[] sequences; //the sequence number of each slot
+	private final int mask; //Q.length - 1
+	private final Counter tail = new Counter(); //the next enqueue ticket
+	private final Counter head = new Counter(); //the next dequeue ticket
+	private final ReentrantLock lock = new ReentrantLock(); //only for parking and waking
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private volatile int waitingConsumers; //threads parked (or about to park) on notEmpty
+	private volatile int waitingProducers; //threads parked (or about to park) on notFull
+	private final AtomicInteger removed = new AtomicInteger(); //tombstones that no consumer has passed yet
+
+	/**
+	 * The constructor creates a queue that holds at least a number of elements, rounded up to a power of two
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements the queue must hold, at least 2
+	 * @throws IllegalArgumentException if size is less than 2 or over 2^30
+	 */
+	public MPMCQueue(int size) throws IllegalArgumentException {
+		if (size < 2 || size > MAX_CAPACITY) {
+			throw new IllegalArgumentException("size must be between 2 and " + MAX_CAPACITY);
+		}
+		int capacity = 2;
+		while (capacity < size) {
+			capacity = capacity * 2;
+		}
+		Q = new Object[capacity];
+		sequences = new long[capacity];
+		for (int i = 0; i < capacity; i++) {
+			sequences[i] = i;
+		}
+		mask = capacity - 1;
+	}
+
+	/**
+	 * This method adds an element to the end of the queue if there is room for it, without blocking
+	 * This method has a constant running time, plus retries when other producers win the same slot
+	 * @param data to be inserted into the queue
+	 * @return true if the element was added, false if the queue is full
+	 * @throws NullPointerException if data is null
+	 */
+	public boolean offer(T data) throws NullPointerException {
+		if (data == null) {
+			throw new NullPointerException();
+		}
+		long t = (long) COUNTER.getOpaque(tail);
+		while (true) {
+			int slot = (int) t & mask;
+			long difference = (long) SEQUENCE.getAcquire(sequences, slot) - t;
+			if (difference == 0) {
+				if (COUNTER.compareAndSet(tail, t, t + 1)) {
+					break;
+				}
+				t = (long) COUNTER.getOpaque(tail);
+			} else if (difference < 0) {
+				return false; //the slot still holds the element from the last lap
+			} else {
+				t = (long) COUNTER.getOpaque(tail); //another producer took this ticket
+			}
+		}
+		int slot = (int) t & mask;
+		Q[slot] = data;
+		SEQUENCE.setRelease(sequences, slot, t + 1);
+		//the fence orders the release above before the read of waitingConsumers, so a consumer
+		//that registered before checking the queue is never left parked
+		VarHandle.fullFence();
+		if (waitingConsumers > 0) {
+			signal(notEmpty, false);
+		}
+		return true;
+	}
+
+	/**
+	 * This method adds as much of a run of an array to the end of the queue as there is room for,
+	 * claiming all of its slots at once, without blocking
+	 * This method has an O(length) running time, plus retries when other producers win the same slots
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @return the number of elements added, from the start of the run
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 * @throws NullPointerException if one of the elements is null
+	 */
+	public int offerAll(T[] items, int offset, int length) throws IndexOutOfBoundsException, NullPointerException {
+		if (offset < 0 || length < 0 || offset > items.length - length) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " do not fit in " + items.length);
+		}
+		for (int i = offset; i < offset + length; i++) {
+			if (items[i] == null) {
+				throw new NullPointerException();
+			}
+		}
+		if (length == 0) {
+			return 0;
+		}
+		long t;
+		int count;
+		while (true) {
+			t = (long) COUNTER.getOpaque(tail);
+			long difference = (long) SEQUENCE.getAcquire(sequences, (int) t & mask) - t;
+			if (difference < 0) {
+				return 0;
+			}
+			if (difference > 0) {
+				continue; //another producer took this ticket
+			}
+			//the run of free slots starting at ticket t
+			count = 1;
+			while (count < length && (long) SEQUENCE.getAcquire(sequences, (int) (t + count) & mask) == t + count) {
+				count++;
+			}
+			if (COUNTER.compareAndSet(tail, t, t + count)) {
+				break;
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			int slot = (int) (t + i) & mask;
+			Q[slot] = items[offset + i];
+			SEQUENCE.setRelease(sequences, slot, t + i + 1);
+		}
+		VarHandle.fullFence();
+		if (waitingConsumers > 0) {
+			signal(notEmpty, count > 1);
+		}
+		return count;
+	}
+
+	/**
+	 * This method takes off the first element of the queue if there is one, without blocking, and
+	 * skips the tombstones of removed elements on the way
+	 * This method has a constant running time, plus retries when other consumers win the same slot
+	 * and one more step for each tombstone skipped
+	 * @return the element at the front of the queue, or null if the queue is empty
+	 */
+	public T poll() {
+		while (true) {
+			long h = (long) COUNTER.getOpaque(head);
+			while (true) {
+				int slot = (int) h & mask;
+				long difference = (long) SEQUENCE.getAcquire(sequences, slot) - (h + 1);
+				if (difference == 0) {
+					if (COUNTER.compareAndSet(head, h, h + 1)) {
+						break;
+					}
+					h = (long) COUNTER.getOpaque(head);
+				} else if (difference < 0) {
+					return null; //the slot has not been filled yet
+				} else {
+					h = (long) COUNTER.getOpaque(head); //another consumer took this ticket
+				}
+			}
+			Object firstItem = takeSlot(h);
+			VarHandle.fullFence();
+			if (waitingProducers > 0) {
+				signal(notFull, false);
+			}
+			if (firstItem != TOMBSTONE) {
+				@SuppressWarnings("unchecked")
+				T item = (T) firstItem; //only a T or the tombstone is ever stored in a slot
+				return item;
+			}
+		}
+	}
+
+	/**
+	 * This method returns the first element of the queue without taking it off
+	 * This method has a constant running time
+	 * @return the element at the front of the queue, or null if the queue is empty
+	 */
+	public T peek() {
+		while (true) {
+			long h = (long) COUNTER.getAcquire(head);
+			int slot = (int) h & mask;
+			long difference = (long) SEQUENCE.getAcquire(sequences, slot) - (h + 1);
+			if (difference < 0) {
+				return null;
+			}
+			if (difference == 0) {
+				Object firstItem = ELEMENT.getAcquire(Q, slot);
+				if (firstItem == TOMBSTONE) {
+					//a removed element is in front, so it is consumed and the next slot is looked at
+					if (COUNTER.compareAndSet(head, h, h + 1)) {
+						takeSlot(h);
+						VarHandle.fullFence();
+						if (waitingProducers > 0) {
+							signal(notFull, false);
+						}
+					}
+					continue;
+				}
+				//the element only counts if no consumer took the slot while it was being read
+				if (firstItem != null && (long) COUNTER.getAcquire(head) == h) {
+					@SuppressWarnings("unchecked")
+					T item = (T) firstItem; //only a T or the tombstone is ever stored in a slot
+					return item;
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method adds an element to the end of the queue, waiting for room if the queue is full
+	 * This method has a constant running time, plus the time spent waiting
+	 * @param data to be inserted into the queue
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws NullPointerException if data is null
+	 */
+	public void put(T data) throws InterruptedException, NullPointerException {
+		offer(data, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * This method adds an element to the end of the queue, waiting up to a timeout for room if the queue is full
+	 * This method has a constant running time, plus the time spent waiting
+	 * @param data to be inserted into the queue
+	 * @param timeout how long to wait, in units of unit
+	 * @param unit the unit of timeout
+	 * @return true if the element was added, false if the timeout ran out first
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws NullPointerException if data is null
+	 */
+	public boolean offer(T data, long timeout, TimeUnit unit) throws InterruptedException, NullPointerException {
+		for (int i = 0; i < SPINS; i++) {
+			if (offer(data)) {
+				return true;
+			}
+			Thread.onSpinWait();
+		}
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			waitingProducers++;
+			try {
+				VarHandle.fullFence();
+				while (!offer(data)) {
+					if (nanos <= 0) {
+						return false;
+					}
+					nanos = notFull.awaitNanos(nanos);
+				}
+				return true;
+			} finally {
+				waitingProducers--;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method takes off the first element of the queue, waiting for one if the queue is empty
+	 * This method has a constant running time, plus the time spent waiting
+	 * @return the element at the front of the queue
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public T take() throws InterruptedException {
+		return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * This method takes off the first element of the queue, waiting up to a timeout for one if the queue is empty
+	 * This method has a constant running time, plus the time spent waiting
+	 * @param timeout how long to wait, in units of unit
+	 * @param unit the unit of timeout
+	 * @return the element at the front of the queue, or null if the timeout ran out first
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		for (int i = 0; i < SPINS; i++) {
+			T firstItem = poll();
+			if (firstItem != null) {
+				return firstItem;
+			}
+			Thread.onSpinWait();
+		}
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			waitingConsumers++;
+			try {
+				VarHandle.fullFence();
+				T firstItem;
+				while ((firstItem = poll()) == null) {
+					if (nanos <= 0) {
+						return null;
+					}
+					nanos = notEmpty.awaitNanos(nanos);
+				}
+				return firstItem;
+			} finally {
+				waitingConsumers--;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method returns the number of elements in the queue. While other threads are running, it is only a snapshot.
+	 * This method has a constant running time
+	 * @return the number of elements
+	 */
+	public int size() {
+		long h = (long) COUNTER.getAcquire(head);
+		long t = (long) COUNTER.getAcquire(tail);
+		return (int) Math.max(0, Math.min(t - h, Q.length) - removed.get());
+	}
+
+	/**
+	 * This method returns true if the queue is empty. Unlike size, it is exact at the moment it
+	 * looks: it skips (and consumes) any tombstones at the front.
+	 * This method has a constant running time, plus one step for each tombstone skipped
+	 * @return boolean value
+	 */
+	public boolean isEmpty() {
+		return peek() == null;
+	}
+
+	/**
+	 * This method returns how many more elements the queue can take right now
+	 * This method has a constant running time
+	 * @return the number of free slots (tombstones that no consumer has passed yet still take up a slot)
+	 */
+	public int remainingCapacity() {
+		long h = (long) COUNTER.getAcquire(head);
+		long t = (long) COUNTER.getAcquire(tail);
+		return (int) (Q.length - Math.max(0, Math.min(t - h, Q.length)));
+	}
+
+	/**
+	 * This method takes off every element of the queue and adds it to a collection
+	 * This method has an O(n) running time
+	 * @param c the collection the elements are added to
+	 * @return the number of elements moved
+	 */
+	public int drainTo(Collection<? super T> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * This method takes off up to a number of elements and adds them to a collection, claiming
+	 * each run of filled slots at the front all at once. Tombstones in a run are skipped, and
+	 * runs are claimed until maxElements elements have been moved or the queue is empty.
+	 * This method has an O(maxElements + tombstones passed) running time
+	 * @param c the collection the elements are added to
+	 * @param maxElements the most elements to move
+	 * @return the number of elements moved
+	 * @throws IllegalArgumentException if the collection is this queue
+	 */
+	public int drainTo(Collection<? super T> c, int maxElements) throws IllegalArgumentException {
+		if (c == this) {
+			throw new IllegalArgumentException("cannot drain a queue into itself");
+		}
+		int moved = 0;
+		while (moved < maxElements) {
+			long h;
+			int count;
+			while (true) {
+				h = (long) COUNTER.getOpaque(head);
+				long difference = (long) SEQUENCE.getAcquire(sequences, (int) h & mask) - (h + 1);
+				if (difference < 0) {
+					return moved;
+				}
+				if (difference > 0) {
+					continue; //another consumer took this ticket
+				}
+				//the run of filled slots starting at ticket h
+				count = 1;
+				while (count < maxElements - moved && (long) SEQUENCE.getAcquire(sequences, (int) (h + count) & mask) == h + count + 1) {
+					count++;
+				}
+				if (COUNTER.compareAndSet(head, h, h + count)) {
+					break;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				Object item = takeSlot(h + i);
+				if (item != TOMBSTONE) {
+					@SuppressWarnings("unchecked")
+					T element = (T) item;
+					c.add(element);
+					moved++;
+				}
+			}
+			VarHandle.fullFence();
+			if (waitingProducers > 0) {
+				signal(notFull, count > 1);
+			}
+		}
+		return moved;
+	}
+
+	/**
+	 * This method removes one element equal to an object from the queue, wherever it is, by
+	 * leaving a tombstone in its slot
+	 * This method has an O(n) running time
+	 * @param o the object
+	 * @return true if an element was removed, false if no element in the queue equals the object
+	 */
+	public boolean remove(Object o) {
+		if (o == null) {
+			return false;
+		}
+		long h = (long) COUNTER.getAcquire(head);
+		long t = (long) COUNTER.getAcquire(tail);
+		for (long i = h; i < t; i++) {
+			Object item = filledSlot(i);
+			if (item != null && item != TOMBSTONE && o.equals(item) && removeSlot(i, item)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method returns an iterator over a snapshot of the elements, from the front to the end.
+	 * Its remove method removes the element from the queue if no consumer has taken it yet.
+	 * This method has an O(n) running time
+	 * @return the iterator
+	 */
+	public Iterator<T> iterator() {
+		ArrayList<Object> snapshot = new ArrayList<Object>();
+		ArrayList<Long> tickets = new ArrayList<Long>(); //the ticket of each element in the snapshot
+		long h = (long) COUNTER.getAcquire(head);
+		long t = (long) COUNTER.getAcquire(tail);
+		for (long i = h; i < t; i++) {
+			Object item = filledSlot(i);
+			if (item != null && item != TOMBSTONE) {
+				snapshot.add(item);
+				tickets.add(i);
+			}
+		}
+		return new Iterator<T>() {
+			private int next = 0;
+			private int last = -1; //the index of the element next returned last, -1 if it was removed
+
+			public boolean hasNext() {
+				return next < snapshot.size();
+			}
+
+			public T next() {
+				if (next >= snapshot.size()) {
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next++;
+				@SuppressWarnings("unchecked")
+				T element = (T) snapshot.get(last); //the snapshot only holds elements, never the tombstone
+				return element;
+			}
+
+			public void remove() {
+				if (last == -1) {
+					throw new IllegalStateException();
+				}
+				removeSlot(tickets.get(last), snapshot.get(last));
+				last = -1;
+			}
+		};
+	}
+
+	/**
+	 * This method returns the element in the slot of a ticket, if the slot is still filled for that ticket
+	 * This method has a constant running time
+	 * @param ticket the ticket
+	 * @return the element (or TOMBSTONE), or null if the slot has been consumed or not filled yet
+	 */
+	private Object filledSlot(long ticket) {
+		int slot = (int) ticket & mask;
+		if ((long) SEQUENCE.getAcquire(sequences, slot) != ticket + 1) {
+			return null;
+		}
+		return ELEMENT.getAcquire(Q, slot);
+	}
+
+	/**
+	 * This method leaves a tombstone in place of an element, if no consumer has taken it yet
+	 * This method has a constant running time
+	 * @param ticket the ticket the element was enqueued with
+	 * @param item the element
+	 * @return true if the element was removed, false if it was already gone
+	 */
+	private boolean removeSlot(long ticket, Object item) {
+		int slot = (int) ticket & mask;
+		if ((long) SEQUENCE.getAcquire(sequences, slot) != ticket + 1 || !ELEMENT.compareAndSet(Q, slot, item, TOMBSTONE)) {
+			return false;
+		}
+		removed.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * This method takes the element out of a slot that a consumer has claimed, and hands the slot to
+	 * the next lap. The element is swapped out atomically, so it cannot also be removed.
+	 * This method has a constant running time
+	 * @param ticket the ticket the consumer claimed
+	 * @return the element, or TOMBSTONE if it had been removed
+	 */
+	private Object takeSlot(long ticket) {
+		int slot = (int) ticket & mask;
+		Object item = ELEMENT.getAndSet(Q, slot, null); //null also lets the element be garbage collected
+		SEQUENCE.setRelease(sequences, slot, ticket + Q.length);
+		if (item == TOMBSTONE) {
+			removed.decrementAndGet();
+		}
+		return item;
+	}
+
+	/**
+	 * This method wakes one or all of the threads parked on a condition
+	 * This method has a constant running time to wake one thread
+	 * @param condition notEmpty or notFull
+	 * @param all true to wake every thread, after a batch that more than one of them can use
+	 */
+	private void signal(Condition condition, boolean all) {
+		lock.lock();
+		try {
+			if (all) {
+				condition.signalAll();
+			} else {
+				condition.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This is the padding in front of a counter, so it does not share a cache line with what comes before it
+	 */
+	private static class LeftPadding {
+		long p01, p02, p03, p04, p05, p06, p07;
+	}
+
+	/**
+	 * This is the counter, which is only ever read and written through COUNTER
+	 */
+	private static class CounterValue extends LeftPadding {
+		long value;
+	}
+
+	/**
+	 * This is the padding behind a counter, so it does not share a cache line with what comes after it
+	 */
+	private static final class Counter extends CounterValue {
+		long p11, p12, p13, p14, p15, p16, p17;
+	}
+}
@@ -4,11 +4,15 @@
  * This is the class for the Min-Priority Queue 
  *  Note to self: when you touch the priority queue, it should touch the heap, and then it touches the hashmap
  * MIN HEAP - value in node is smaller than its children! 
+ * The queue is backed by a Heap by default, but any PriorityQueueBackend can be plugged in:
+ * a PrimitiveHeapBackend keeps priorities inline in a double[], and a PairingHeap makes
+ * lowering a priority constant time for workloads that rebalance much more than they pull.
  */
 
 public class MinPriorityQueue {
-	public Heap heap;
+	public Heap heap; //the backend when it is a Heap, null otherwise
 	private int capacity; 
+	private PriorityQueueBackend backend; //the heap the queue is backed by
 
 	/**
 	 * This is the constructor of the min-priority queue 
@@ -16,6 +20,103 @@ public class MinPriorityQueue {
 	 */
 	public MinPriorityQueue(){
 		heap= new Heap();
+		backend = heap;
+		capacity = 0;
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue that is expected to hold a certain number
+	 * of graphNodes. The queue still grows past the hint if it has to.
+	 * This method has a constant running time 
+	 * @param capacityHint the number of graphNodes the queue is expected to hold
+	 */
+	public MinPriorityQueue(int capacityHint){
+		heap= new Heap(capacityHint);
+		backend = heap;
+		capacity = 0;
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue backed by a d-ary heap. A 4- or 8-ary
+	 * heap makes pulling the highest priority element cheaper on large queues.
+	 * This method has a constant running time 
+	 * @param capacityHint the number of graphNodes the queue is expected to hold
+	 * @param arity the number of children of each node of the heap, at least 2
+	 */
+	public MinPriorityQueue(int capacityHint, int arity){
+		heap= new Heap(capacityHint, arity);
+		backend = heap;
+		capacity = 0;
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue backed by a d-ary heap whose hashmap can
+	 * rehash incrementally, so that no insert has to wait for the whole map to be rehashed
+	 * This method has a constant running time
+	 * @param capacityHint the number of graphNodes the queue is expected to hold
+	 * @param arity the number of children of each node of the heap, at least 2
+	 * @param incrementalRehash true to spread each rehash of the heap's hashmap across later operations
+	 */
+	public MinPriorityQueue(int capacityHint, int arity, boolean incrementalRehash){
+		this(capacityHint, arity, incrementalRehash, false);
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue backed by a d-ary heap whose hashmap can
+	 * rehash incrementally and can put a Bloom filter in front of its lookups, so that hasKey on
+	 * a graphNode that is not queued rarely has to probe
+	 * This method has a constant running time
+	 * @param capacityHint the number of graphNodes the queue is expected to hold
+	 * @param arity the number of children of each node of the heap, at least 2
+	 * @param incrementalRehash true to spread each rehash of the heap's hashmap across later operations
+	 * @param membershipFilter true to turn on the membership filter of the heap's hashmap
+	 */
+	public MinPriorityQueue(int capacityHint, int arity, boolean incrementalRehash, boolean membershipFilter){
+		heap= new Heap(capacityHint, arity, incrementalRehash, membershipFilter);
+		backend = heap;
+		capacity = 0;
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue whose heap finds graphNodes through
+	 * a node dictionary instead of a hashmap
+	 * This method has a constant running time 
+	 * @param dictionary the dictionary giving each graphNode a dense ID
+	 */
+	public MinPriorityQueue(NodeDictionary dictionary){
+		heap= new Heap(dictionary);
+		backend = heap;
+		capacity = 0;
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue that can keep the priorities inline.
+	 * The priority of a graphNode is copied into the primitive heap when it is inserted or
+	 * rebalanced, so rebalance must still be called after the priority is changed.
+	 * This method has an O(number of interned nodes) running time with inline priorities
+	 * @param dictionary the dictionary giving each graphNode a dense ID
+	 * @param inlinePriorities true to use a PrimitiveHeap, false to use a Heap with the dictionary
+	 */
+	public MinPriorityQueue(NodeDictionary dictionary, boolean inlinePriorities){
+		if (inlinePriorities) {
+			backend = new PrimitiveHeapBackend(dictionary);
+		} else {
+			heap= new Heap(dictionary);
+			backend = heap;
+		}
+		capacity = 0;
+	}
+
+	/**
+	 * This is the constructor of a min-priority queue backed by any heap
+	 * This method has a constant running time 
+	 * @param backend an empty backend, such as a Heap, PrimitiveHeapBackend or PairingHeap
+	 */
+	public MinPriorityQueue(PriorityQueueBackend backend){
+		this.backend = backend;
+		if (backend instanceof Heap) {
+			heap = (Heap) backend;
+		}
 		capacity = 0;
 	}
 	
@@ -31,6 +132,15 @@ public class MinPriorityQueue {
 		return false;
 	}
 
+	/**
+	 * This method returns the number of graphNodes in the queue
+	 * This method has a constant running time 
+	 * @return the number of graphNodes
+	 */
+	public int size() {
+		return capacity;
+	}
+
 	/**
 	 * This method returns a boolean value indicating whether a particular graphNode 
 	 * is in the queue by calling the hasKey method in the heap class. 
@@ -39,30 +149,57 @@ public class MinPriorityQueue {
 	 * @return true if the graphNode is in the queue. false otherwise. 
 	 */
 	public boolean hasKey(GraphNode g) {
-		return heap.hasKey(g);
+		return backend.hasKey(g);
 	}
 
 	/**
 	 * This method allows an insert to be made into the min priority queue by 
-	 * calling the insert method in the heap class. 
+	 * calling the insert method of the backend. 
 	 * This method has a O(logn) running time 
 	 * @param g the graphNode to be inserted 
 	 */
 	public void insert(GraphNode g) {
-		heap.insert(g);
+		backend.insert(g);
 		capacity ++;
 	}
 
+	/**
+	 * This method inserts many graphNodes at once. A Heap builds itself bottom up in O(n)
+	 * with insertAll, and any other backend has its graphNodes inserted one at a time.
+	 * This method has a O(n) running time with a Heap
+	 * @param nodes the graphNodes to be inserted
+	 */
+	public void insertAll(GraphNode[] nodes) {
+		insertAll(nodes, false);
+	}
+
+	/**
+	 * This method inserts many graphNodes at once, optionally building the heap in parallel,
+	 * which pays off when a search starts from a very large queue
+	 * This method has a O(n) running time with a Heap
+	 * @param nodes the graphNodes to be inserted
+	 * @param parallel true to heapify on the common fork/join pool
+	 */
+	public void insertAll(GraphNode[] nodes, boolean parallel) {
+		if (heap != null) {
+			heap.insertAll(nodes, parallel);
+		} else {
+			for (GraphNode g : nodes) {
+				backend.insert(g);
+			}
+		}
+		capacity += nodes.length;
+	}
+
 	/**
 	 * This method extracts the highest priority element (in this case, the graphNode
-	 * with the lowest integer as its priority) from the queue by calling the heap 
-	 * "remove" method 
+	 * with the lowest integer as its priority) from the queue by calling the backend's 
+	 * "pullMin" method 
 	 * This method has a O(logn) running time 
 	 * @return the graphNode with the highest priority 
 	 */
 	public GraphNode pullHighestPriorityElement() throws Exception{
-		GraphNode priorityElement = heap.heap[0];
-		heap.remove();
+		GraphNode priorityElement = backend.pullMin();
 		capacity--;
 		return priorityElement;
 	}
@@ -75,6 +212,68 @@ public class MinPriorityQueue {
 	 * @param g
 	 */
 	public void rebalance(GraphNode g) {
-		heap.heapifyDirection(g);
+		backend.rebalance(g);
+	}
+
+	/**
+	 * This method returns a boolean value indicating whether the graphNode with a certain
+	 * dense ID is in the queue. The queue must be backed by a Heap with a node dictionary.
+	 * This method has a constant running time
+	 * @param id the dense ID of the graphNode
+	 * @return true if the graphNode is in the queue. false otherwise.
+	 * @throws IllegalStateException if the queue is not backed by a Heap with a node dictionary
+	 */
+	public boolean hasKey(int id) {
+		return idHeap().hasKey(id);
+	}
+
+	/**
+	 * This method sets the priority of the graphNode with a certain dense ID and inserts it.
+	 * The queue must be backed by a Heap with a node dictionary.
+	 * This method has a O(logn) running time
+	 * @param id the dense ID of the graphNode
+	 * @param priority the priority of the graphNode
+	 * @throws IllegalStateException if the queue is not backed by a Heap with a node dictionary
+	 */
+	public void insert(int id, int priority) {
+		idHeap().insert(id, priority);
+		capacity ++;
+	}
+
+	/**
+	 * This method extracts the highest priority element from the queue and returns its dense ID.
+	 * The queue must be backed by a Heap with a node dictionary.
+	 * This method has a O(logn) running time
+	 * @return the dense ID of the graphNode with the highest priority
+	 * @throws IllegalStateException if the queue is not backed by a Heap with a node dictionary
+	 */
+	public int pullHighestPriorityId() {
+		int id = idHeap().pullMinId();
+		capacity--;
+		return id;
+	}
+
+	/**
+	 * This method rebalances the priority queue after the priority of the graphNode with a
+	 * certain dense ID changed. The queue must be backed by a Heap with a node dictionary.
+	 * This method has a O(logn) running time
+	 * @param id the dense ID of the graphNode
+	 * @throws IllegalStateException if the queue is not backed by a Heap with a node dictionary
+	 */
+	public void rebalance(int id) {
+		idHeap().rebalance(id);
+	}
+
+	/**
+	 * This method returns the Heap backing the queue, for the methods that take dense IDs
+	 * This method has a constant running time
+	 * @return the heap
+	 * @throws IllegalStateException if the queue is not backed by a Heap
+	 */
+	private Heap idHeap() {
+		if (heap == null) {
+			throw new IllegalStateException("dense IDs need a queue backed by a Heap");
+		}
+		return heap;
 	}
 }
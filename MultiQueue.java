@@ -0,0 +1,293 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for a relaxed concurrent min-priority queue (a MultiQueue), for parallel graph
+ * searches where a lock around one MinPriorityQueue would make every worker wait on every other
+ * The queue is c * P ordinary heaps, each with its own lock. Inserting locks a random heap, and
+ * pulling looks at the tops of two random heaps and pulls from the one with the smaller priority.
+ * A lock that is taken is never waited on: the thread just picks other heaps.
+ * RELAXED: a pull does not always return the smallest graphNode. With n = c * P heaps, the rank of
+ * the graphNode pulled (how many graphNodes in the queue are smaller) is O(n) in expectation and
+ * O(n log n) with high probability, so label-correcting searches (like delta-stepping) stay correct
+ * and only redo O(n) extra work per pull, while throughput grows with the number of threads.
+ * The top of each heap is cached so that comparing two heaps does not take either lock (a priority
+ * read there may be stale, which only affects which heap is tried).
+ * A search relaxes a graphNode with insertOrDecrease(g, priority). It first claims the graphNode in
+ * the home map with putIfAbsent, so when several threads relax the same graphNode only one of them
+ * inserts it, and a graphNode is never in two heaps at once. Every priority is written under the
+ * lock of the heap the graphNode goes into (or is in), so no thread ever sifts a graphNode whose
+ * priority another thread is changing.
+ */
+public class MultiQueue {
+	private static final int DEFAULT_FACTOR = 2; //the c in c * P heaps
+	private static final int SCAN_AFTER = 8; //failed samples in a row before a pull checks every heap in order
+	private static final int CLAIMED = -2; //the home of a graphNode that a thread is still inserting
+
+	private Heap[] heaps;
+	private ReentrantLock[] locks;
+	private AtomicReferenceArray<GraphNode> tops; //the root of each heap, null if it is empty
+	private ConcurrentHashMap home; //maps each graphNode to the index of the heap it is in, or CLAIMED
+	private AtomicInteger size;
+
+	/**
+	 * The constructor creates a queue with two heaps for every available processor
+	 * This method has an O(P) running time
+	 */
+	public MultiQueue() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_FACTOR);
+	}
+
+	/**
+	 * The constructor creates a queue with c heaps for each of a number of threads. A larger c
+	 * means fewer failed lock attempts but a larger rank error.
+	 * This method has an O(c * P) running time
+	 * @param threads the number of threads that will use the queue
+	 * @param factor the number of heaps per thread, at least 1
+	 * @throws IllegalArgumentException if threads or factor is less than 1
+	 */
+	public MultiQueue(int threads, int factor) throws IllegalArgumentException {
+		if (threads < 1 || factor < 1) {
+			throw new IllegalArgumentException("threads and factor must be at least 1");
+		}
+		int count = Math.max(threads * factor, 2);
+		heaps = new Heap[count];
+		locks = new ReentrantLock[count];
+		for (int i = 0; i < count; i++) {
+			heaps[i] = new Heap();
+			locks[i] = new ReentrantLock();
+		}
+		tops = new AtomicReferenceArray<GraphNode>(count);
+		home = new ConcurrentHashMap();
+		size = new AtomicInteger();
+	}
+
+	/**
+	 * This method returns whether the queue is empty. Other threads may change that right after.
+	 * This method has a constant running time
+	 * @return true if the queue is empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return size.get() == 0;
+	}
+
+	/**
+	 * This method returns the number of graphNodes in the queue
+	 * This method has a constant running time
+	 * @return the number of graphNodes
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * This method determines whether a graphNode is in the queue (or another thread is inserting it)
+	 * This method has a constant running time and never locks
+	 * @param g the graphNode
+	 * @return true if the graphNode is in the queue, false otherwise
+	 */
+	public boolean hasKey(GraphNode g) {
+		return home.hasKey(g);
+	}
+
+	/**
+	 * This method inserts a graphNode with the priority it already has, unless it is already in the
+	 * queue (or another thread is inserting it), in which case nothing happens
+	 * This method has an O(log n) expected running time
+	 * @param g the graphNode to be inserted
+	 * @return true if the graphNode was inserted, false if it was already in the queue
+	 */
+	public boolean insert(GraphNode g) {
+		if (!home.putIfAbsent(g, CLAIMED)) {
+			return false;
+		}
+		place(g, g.priority);
+		return true;
+	}
+
+	/**
+	 * This method inserts a graphNode with a priority, or lowers its priority if it is already in the
+	 * queue with a larger one. This is the one call a search needs to relax a graphNode, and it is
+	 * safe when several threads relax the same graphNode at once: the graphNode is claimed in the
+	 * home map with putIfAbsent, so exactly one thread inserts it, and the others wait for that
+	 * insert to finish and then lower the priority under the lock of its heap.
+	 * This method has an O(log n) expected running time, plus the time waiting for that heap's lock
+	 * @param g the graphNode
+	 * @param priority the priority
+	 * @return true if the graphNode was inserted or its priority lowered, false if it was already in the queue with a priority no larger
+	 */
+	public boolean insertOrDecrease(GraphNode g, int priority) {
+		while (true) {
+			if (home.putIfAbsent(g, CLAIMED)) {
+				place(g, priority);
+				return true;
+			}
+			int i = home.getValue(g);
+			if (i == CLAIMED) {
+				Thread.onSpinWait(); //another thread is inserting the graphNode
+				continue;
+			}
+			if (i == -1) {
+				continue; //the graphNode was pulled after putIfAbsent saw it
+			}
+			locks[i].lock();
+			try {
+				//the graphNode may have been pulled (and inserted again elsewhere) before the lock was taken
+				if (heaps[i].hasKey(g)) {
+					if (g.priority <= priority) {
+						return false;
+					}
+					g.priority = priority;
+					heaps[i].rebalance(g);
+					tops.set(i, heaps[i].heap[0]);
+					return true;
+				}
+			} finally {
+				locks[i].unlock();
+			}
+		}
+	}
+
+	/**
+	 * This method puts a graphNode this thread has claimed into the first random heap whose lock it gets,
+	 * writing its priority under that lock
+	 * This method has an O(log n) expected running time
+	 * @param g the graphNode, whose home is CLAIMED
+	 * @param priority the priority
+	 */
+	private void place(GraphNode g, int priority) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (true) {
+			int i = random.nextInt(heaps.length);
+			if (locks[i].tryLock()) {
+				try {
+					g.priority = priority;
+					heaps[i].insert(g);
+					home.set(g, i);
+					tops.set(i, heaps[i].heap[0]);
+					size.incrementAndGet();
+				} finally {
+					locks[i].unlock();
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * This method changes the priority of a graphNode in the queue and restores the order of its heap.
+	 * The priority is written while holding the lock of the heap the graphNode is in, so no other
+	 * thread can be sifting that heap (and reading the priority) at the same time. The priority of a
+	 * graphNode that may be in the queue must only ever be changed through this method or insertOrDecrease.
+	 * If the graphNode is not in the queue, its priority is left alone. A caller that wants to insert
+	 * it in that case should call insertOrDecrease instead, since another thread could insert it in between.
+	 * This method has an O(log n) running time, plus the time waiting for that heap's lock
+	 * @param g the graphNode
+	 * @param priority the new priority
+	 * @return true if the graphNode was in the queue and has been moved, false if it was not in the queue
+	 */
+	public boolean rebalance(GraphNode g, int priority) {
+		while (true) {
+			int i = home.getValue(g);
+			if (i == -1) {
+				return false;
+			}
+			if (i == CLAIMED) {
+				Thread.onSpinWait(); //another thread is inserting the graphNode
+				continue;
+			}
+			locks[i].lock();
+			try {
+				//the graphNode may have been pulled (or moved to another heap) before the lock was taken
+				if (heaps[i].hasKey(g)) {
+					g.priority = priority;
+					heaps[i].rebalance(g);
+					tops.set(i, heaps[i].heap[0]);
+					return true;
+				}
+			} finally {
+				locks[i].unlock();
+			}
+		}
+	}
+
+	/**
+	 * This method pulls a graphNode with one of the smallest priorities: the smaller of the tops of
+	 * two random heaps. If sampling keeps missing (most heaps empty or locked), every heap is
+	 * checked in order, so a graphNode is found as long as the queue is not empty.
+	 * This method has an O(log n) expected running time
+	 * @return a graphNode with one of the smallest priorities, or null if the queue is empty
+	 */
+	public GraphNode pullHighestPriorityElement() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int misses = 0;
+		while (size.get() > 0) {
+			if (misses >= SCAN_AFTER) {
+				GraphNode g = scan();
+				if (g != null) {
+					return g;
+				}
+				misses = 0;
+				continue;
+			}
+			int a = random.nextInt(heaps.length);
+			int b = random.nextInt(heaps.length - 1);
+			if (b >= a) {
+				b++;
+			}
+			GraphNode topA = tops.get(a);
+			GraphNode topB = tops.get(b);
+			int i = topB == null || (topA != null && topA.priority <= topB.priority) ? a : b;
+			if (tops.get(i) == null || !locks[i].tryLock()) {
+				misses++;
+				continue;
+			}
+			try {
+				if (!heaps[i].isEmpty()) {
+					return pullFrom(i);
+				}
+			} finally {
+				locks[i].unlock();
+			}
+			misses++;
+		}
+		return null;
+	}
+
+	/**
+	 * This method checks every heap in order, waiting for each lock, and pulls from the first non-empty one
+	 * This method has an O(c * P + log n) running time
+	 * @return the graphNode pulled, or null if every heap was empty when it was checked
+	 */
+	private GraphNode scan() {
+		for (int i = 0; i < heaps.length; i++) {
+			locks[i].lock();
+			try {
+				if (!heaps[i].isEmpty()) {
+					return pullFrom(i);
+				}
+			} finally {
+				locks[i].unlock();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * This method pulls the root of one heap, whose lock must be held
+	 * This method has an O(log n) running time
+	 * @param i the index of the heap
+	 * @return the root of the heap
+	 */
+	private GraphNode pullFrom(int i) {
+		GraphNode g = heaps[i].pullMin();
+		home.remove(g);
+		tops.set(i, heaps[i].isEmpty() ? null : heaps[i].heap[0]);
+		size.decrementAndGet();
+		return g;
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for the node dictionary, which interns graph nodes into dense int IDs
+ * KEYS --> GraphNodes
+ * VALUES --> dense int ID of the graph node (0, 1, 2, ... in the order the nodes were interned)
+ * Nodes are meant to be interned once, when the graph is loaded. After that a heap can keep its
+ * positions in a plain int[] indexed by the dense ID instead of going through a hashmap on every swap.
+ */
+public class NodeDictionary {
+	private HashMap ids; //maps each graph node to its dense ID
+	private GraphNode[] nodes; //the graph node of each dense ID
+	private int size; //number of nodes interned so far
+
+	/**
+	 * This is the constructor for the dictionary
+	 * This method has a constant running time
+	 */
+	public NodeDictionary() {
+		ids = new HashMap();
+		nodes = new GraphNode[16];
+		this.size = 0;
+	}
+
+	/**
+	 * This method returns the dense ID of a graph node, giving it the next free ID if it
+	 * has not been interned yet
+	 * This method has a constant amortized running time
+	 * @param g the graph node to be interned
+	 * @return the dense ID of the graph node
+	 */
+	public int intern(GraphNode g) {
+		int id = ids.getValue(g);
+		if (id == -1) {
+			id = size;
+			if (size == nodes.length) {
+				GraphNode[] larger = new GraphNode[nodes.length * 2];
+				System.arraycopy(nodes, 0, larger, 0, size);
+				nodes = larger;
+			}
+			nodes[size] = g;
+			ids.set(g, id);
+			size++;
+		}
+		return id;
+	}
+
+	/**
+	 * This method returns the dense ID of a graph node without interning it
+	 * This method has a constant running time
+	 * @param g the graph node
+	 * @return the dense ID of the graph node, or -1 if it has not been interned
+	 */
+	public int getId(GraphNode g) {
+		return ids.getValue(g);
+	}
+
+	/**
+	 * This method returns the graph node that was given a dense ID
+	 * This method has a constant running time
+	 * @param id the dense ID
+	 * @return the graph node with that ID
+	 */
+	public GraphNode getNode(int id) {
+		return nodes[id];
+	}
+
+	/**
+	 * This method returns the number of nodes that have been interned, which is also
+	 * one more than the largest dense ID handed out so far
+	 * This method has a constant running time
+	 * @return the number of interned nodes
+	 */
+	public int size() {
+		return size;
+	}
+}
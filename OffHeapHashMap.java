@@ -0,0 +1,284 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is an off-heap version of the HashMap class for very large graphs
+ * KEYS --> long IDs of graph nodes
+ * VALUES --> index of the graph node in the heap array
+ * Instead of an Entry object per key, the keys and values are packed into two direct buffers
+ * (8 bytes + 4 bytes per slot) that live outside the Java heap, so the garbage collector never
+ * has to scan the table.
+ * The map does not double: it fills up to 90% and then grows by an eighth, so it is always between
+ * 80% and 90% full and takes between 13.3 and 15 bytes per entry (a doubling map would drop to
+ * 30 bytes per entry right after each resize). A key's home slot is found by multiplying its hash
+ * by the capacity and keeping the high half, so the capacity does not have to be a power of two.
+ * Key 0 marks an empty slot, so the key 0 itself is kept in a separate field.
+ * Collisions are resolved with Robin Hood linear probing, like in HashMap.
+ **/
+public class OffHeapHashMap {
+	private static final int DEFAULT_CAPACITY = 32768; //same starting size as HashMap
+	private static final double LOAD_FACTOR = 0.9; //Robin Hood probing keeps chains short even this full
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE / 8; //a direct buffer holds at most 2GB of long keys
+	private static final long EMPTY = 0L; //the key stored in an empty slot
+
+	private LongBuffer keys; //the key in each slot, EMPTY if the slot is free
+	private IntBuffer values; //the value in each slot
+	private int capacity; //the number of slots
+	private int load; //number of keys in the buffers (not counting the key 0)
+	private boolean hasZeroKey; //whether the key 0 is in the map
+	private int zeroValue; //the value of the key 0
+
+	/**
+	 * This is the constructor for the off-heap hashmap
+	 * This method has an O(capacity) running time to clear the buffers
+	 */
+	public OffHeapHashMap() {
+		allocate(DEFAULT_CAPACITY);
+		this.load = 0;
+		this.hasZeroKey = false;
+	}
+
+	/**
+	 * This method determines whether a key is in the map
+	 * This method has a constant running time
+	 * @param key the ID of the graph node
+	 * @return true if the key is in the map, and false otherwise
+	 */
+	public boolean hasKey(long key) {
+		if (key == EMPTY) {
+			return hasZeroKey;
+		}
+		return findSlot(key) != -1;
+	}
+
+	/**
+	 * This method returns the value associated with a key if it is found
+	 * This method has a constant running time
+	 * @param key the ID of the graph node
+	 * @return the value associated with the key. -1 is returned if the key is not found
+	 */
+	public int getValue(long key) {
+		if (key == EMPTY) {
+			return hasZeroKey ? zeroValue : -1;
+		}
+		int slot = findSlot(key);
+		if (slot != -1) {
+			return values.get(slot);
+		} else {
+			return -1; //key not found
+		}
+	}
+
+	/**
+	 * This method inserts a new key into the map, or changes the value of a key that is already in it
+	 * This method has a constant running time
+	 * @param key the ID of the graph node
+	 * @param value the index of the graph node in the heap array
+	 * @throws IllegalStateException if the map would need more slots than a direct buffer can hold
+	 */
+	public void set(long key, int value) throws IllegalStateException {
+		if (key == EMPTY) {
+			hasZeroKey = true;
+			zeroValue = value;
+			return;
+		}
+		int slot = findSlot(key);
+		if (slot != -1) {
+			values.put(slot, value);
+			return;
+		}
+
+		//Rehash if the number of elements would exceed 90% of the capacity
+		if (((double)(load + 1)/(double)capacity) > LOAD_FACTOR) {
+			rehash();
+		}
+		place(key, value);
+		load++;
+	}
+
+	/**
+	 * This method removes a key from the map with backward-shift deletion
+	 * This method has a constant running time
+	 * @param key the ID of the graph node
+	 */
+	public void remove(long key) {
+		if (key == EMPTY) {
+			hasZeroKey = false;
+			return;
+		}
+		int slot = findSlot(key);
+		if (slot == -1) {
+			return;
+		}
+		int next = nextSlot(slot);
+		while (keys.get(next) != EMPTY && probeDistance(keys.get(next), next) > 0) {
+			keys.put(slot, keys.get(next));
+			values.put(slot, values.get(next));
+			slot = next;
+			next = nextSlot(next);
+		}
+		keys.put(slot, EMPTY);
+		load--;
+	}
+
+	/**
+	 * This method returns the number of keys currently in the map
+	 * This method has a constant running time
+	 * @return the number of keys in the map
+	 */
+	public int size() {
+		return hasZeroKey ? load + 1 : load;
+	}
+
+	/**
+	 * This method computes the hash of a key with the murmur3 64-bit finalizer
+	 * This method has a constant running time
+	 * @param key the ID of the graph node
+	 * @return the mixed hash of the key
+	 */
+	public int hashFunction(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	/**
+	 * This method finds the slot that holds a key, stopping early in the same way as HashMap
+	 * This method has a constant expected running time
+	 * @param key the ID of the graph node, never EMPTY
+	 * @return the slot holding the key, or -1 if the key is not in the map
+	 */
+	private int findSlot(long key) {
+		int slot = homeSlot(key);
+		for (int distance = 0; ; distance++) {
+			long k = keys.get(slot);
+			if (k == key) {
+				return slot;
+			}
+			if (k == EMPTY || probeDistance(k, slot) < distance) {
+				return -1;
+			}
+			slot = nextSlot(slot);
+		}
+	}
+
+	/**
+	 * This method places a key that is not yet in the map using Robin Hood probing
+	 * This method has a constant expected running time
+	 * @param key the ID of the graph node, never EMPTY
+	 * @param value the value of the key
+	 */
+	private void place(long key, int value) {
+		int slot = homeSlot(key);
+		int distance = 0;
+		while (keys.get(slot) != EMPTY) {
+			int existing = probeDistance(keys.get(slot), slot);
+			if (existing < distance) {
+				long tempKey = keys.get(slot);
+				int tempValue = values.get(slot);
+				keys.put(slot, key);
+				values.put(slot, value);
+				key = tempKey;
+				value = tempValue;
+				distance = existing;
+			}
+			slot = nextSlot(slot);
+			distance++;
+		}
+		keys.put(slot, key);
+		values.put(slot, value);
+	}
+
+	/**
+	 * This method returns how far a slot is from the home slot of a key, wrapping around the buffer
+	 * This method has a constant running time
+	 * @param key the key stored in the slot
+	 * @param slot the slot the key is stored in
+	 * @return the number of probes it took to reach the slot
+	 */
+	private int probeDistance(long key, int slot) {
+		int distance = slot - homeSlot(key);
+		return distance < 0 ? distance + capacity : distance;
+	}
+
+	/**
+	 * This method returns the home slot of a key: the high half of its (unsigned) hash times the capacity
+	 * This method has a constant running time
+	 * @param key the ID of the graph node
+	 * @return a slot between 0 and capacity - 1
+	 */
+	private int homeSlot(long key) {
+		return (int) (((hashFunction(key) & 0xffffffffL) * capacity) >>> 32);
+	}
+
+	/**
+	 * This method returns the slot after a slot, wrapping around the end of the buffers
+	 * This method has a constant running time
+	 * @param slot a slot
+	 * @return the next slot
+	 */
+	private int nextSlot(int slot) {
+		slot++;
+		return slot == capacity ? 0 : slot;
+	}
+
+	/**
+	 * This method allocates new, empty buffers. The fields only change once both buffers have been
+	 * allocated, so a failed allocation leaves the map as it was.
+	 * This method has an O(capacity) running time
+	 * @param newCapacity the number of slots, at most MAX_CAPACITY
+	 */
+	private void allocate(int newCapacity) {
+		long keyBytes = (long) newCapacity * 8;
+		long valueBytes = (long) newCapacity * 4;
+		LongBuffer newKeys = ByteBuffer.allocateDirect((int) keyBytes).order(ByteOrder.nativeOrder()).asLongBuffer();
+		IntBuffer newValues = ByteBuffer.allocateDirect((int) valueBytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+		keys = newKeys;
+		values = newValues;
+		capacity = newCapacity;
+	}
+
+	/**
+	 * This method grows the number of slots by an eighth and places every key again. The old buffers
+	 * are released once their (small) ByteBuffer objects are collected.
+	 * This method has a running time of O(n)
+	 * @throws IllegalStateException if the map is already as large as a direct buffer allows
+	 */
+	public void rehash() throws IllegalStateException {
+		if (capacity >= MAX_CAPACITY) {
+			throw new IllegalStateException("off-heap map capacity reached");
+		}
+		LongBuffer oldKeys = keys;
+		IntBuffer oldValues = values;
+		allocate((int) Math.min(MAX_CAPACITY, (long) capacity + capacity / 8));
+		for (int i = 0; i < oldKeys.capacity(); i++) {
+			if (oldKeys.get(i) != EMPTY) {
+				place(oldKeys.get(i), oldValues.get(i));
+			}
+		}
+	}
+
+	/**
+	 * This is a simple toString method that helped with debugging
+	 * This method has an O(n) running time as it goes through the whole buffer.
+	 */
+	public String toString() {
+		String content = "";
+		if (hasZeroKey) {
+			content += "Key: 0\tValue: " + zeroValue + "\n";
+		}
+		for (int i = 0; i < capacity; i++) {
+			if (keys.get(i) != EMPTY) {
+				content += "Index: " + i + "\tKey: " + keys.get(i) + "\tValue: " + values.get(i) + "\n";
+			}
+		}
+		return content;
+	}
+}
@@ -0,0 +1,254 @@
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for a pairing heap of graphNodes, a MinPriorityQueue backend for workloads
+ * that rebalance (lower priorities) far more often than they pull
+ * The heap is a tree where every node is no larger than its children. Inserting and lowering a
+ * priority just link a tree under the root in constant time; the work is put off until the root is
+ * pulled, when its children are paired up and linked back into one tree (O(log n) amortized).
+ * The tree is kept in arrays of slots (child, next sibling, and previous sibling or parent), and
+ * the hashmap maps each graphNode to its slot. The priority of each slot is copied in on insert and
+ * rebalance, so the heap knows whether a priority went down (cheap) or up (a delete and reinsert).
+ */
+public class PairingHeap implements PriorityQueueBackend {
+	private static final int MIN_CAPACITY = 16;
+
+	private HashMap slots; //maps each graphNode to its slot
+	private GraphNode[] nodes; //the graphNode in each slot
+	private double[] keys; //the priority of each slot when it was last inserted or rebalanced
+	private int[] child; //the first child of each slot, -1 if it has none
+	private int[] sibling; //the next sibling of each slot, -1 if it is the last child
+	private int[] prev; //the previous sibling of each slot, or its parent if it is the first child
+	private int[] freeSlots; //stack of slots that can be reused
+	private int freeCount;
+	private int used; //number of slots that have ever been handed out
+	private int[] pairs; //scratch space for pairing up the children of a pulled root
+	private int root; //the slot of the smallest graphNode, -1 if the heap is empty
+	private int size;
+
+	/**
+	 * The constructor creates an empty pairing heap
+	 * This method has a constant running time
+	 */
+	public PairingHeap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * The constructor creates an empty pairing heap that is expected to hold a number of graphNodes
+	 * This method has an O(capacityHint) running time
+	 * @param capacityHint the number of graphNodes the heap is expected to hold
+	 */
+	public PairingHeap(int capacityHint) {
+		int length = Math.max(capacityHint, MIN_CAPACITY);
+		slots = new HashMap(length, 0.6);
+		nodes = new GraphNode[length];
+		keys = new double[length];
+		child = new int[length];
+		sibling = new int[length];
+		prev = new int[length];
+		freeSlots = new int[length];
+		pairs = new int[MIN_CAPACITY];
+		root = -1;
+	}
+
+	/**
+	 * This method inserts a graphNode by linking it with the root
+	 * This method has a constant amortized running time
+	 */
+	public void insert(GraphNode g) {
+		int slot = takeSlot();
+		nodes[slot] = g;
+		keys[slot] = g.priority;
+		child[slot] = -1;
+		sibling[slot] = -1;
+		prev[slot] = -1;
+		slots.set(g, slot);
+		root = root == -1 ? slot : link(root, slot);
+		size++;
+	}
+
+	/**
+	 * This method determines whether a graphNode is in the heap
+	 * This method has a constant running time
+	 * @param g the graphNode
+	 * @return true if the graphNode is in the heap, false otherwise
+	 */
+	public boolean hasKey(GraphNode g) {
+		return slots.hasKey(g);
+	}
+
+	/**
+	 * This method restores heap order after the priority of a graphNode changed. A lower priority
+	 * cuts the graphNode's subtree out and links it with the root. A higher priority takes the
+	 * graphNode out of the tree, links its children back in, and inserts it again on its own.
+	 * This method has a constant amortized running time for a lower priority, O(log n) for a higher one
+	 */
+	public void rebalance(GraphNode g) {
+		int slot = slots.getValue(g);
+		double key = g.priority;
+		if (key < keys[slot]) {
+			keys[slot] = key;
+			if (slot != root) {
+				cut(slot);
+				root = link(root, slot);
+			}
+		} else if (key > keys[slot]) {
+			keys[slot] = key;
+			int children = pairUp(child[slot]);
+			child[slot] = -1;
+			if (slot == root) {
+				root = children;
+			} else {
+				cut(slot);
+				if (children != -1) {
+					root = link(root, children);
+				}
+			}
+			root = root == -1 ? slot : link(root, slot);
+		}
+	}
+
+	/**
+	 * This method removes the root and pairs up its children into the new tree
+	 * This method has an O(log n) amortized running time
+	 * @throws IllegalStateException if the heap is empty
+	 */
+	public GraphNode pullMin() throws IllegalStateException {
+		if (root == -1) {
+			throw new IllegalStateException("heap is empty");
+		}
+		int min = root;
+		GraphNode g = nodes[min];
+		root = pairUp(child[min]);
+		slots.remove(g);
+		nodes[min] = null;
+		freeSlots[freeCount] = min;
+		freeCount++;
+		size--;
+		return g;
+	}
+
+	/**
+	 * This method returns the number of graphNodes in the heap
+	 * This method has a constant running time
+	 * @return the number of graphNodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method determines whether the heap is empty
+	 * This method has a constant running time
+	 * @return true if there are no graphNodes, false otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * This method links two trees, making the one with the larger root the first child of the other
+	 * This method has a constant running time
+	 * @param a the root of one tree
+	 * @param b the root of the other tree
+	 * @return the root of the linked tree
+	 */
+	private int link(int a, int b) {
+		if (keys[b] < keys[a]) {
+			int temp = a;
+			a = b;
+			b = temp;
+		}
+		sibling[b] = child[a];
+		if (child[a] != -1) {
+			prev[child[a]] = b;
+		}
+		prev[b] = a;
+		child[a] = b;
+		sibling[a] = -1;
+		prev[a] = -1;
+		return a;
+	}
+
+	/**
+	 * This method cuts a slot (and its subtree) out of its parent's list of children
+	 * This method has a constant running time
+	 * @param slot a slot that is not the root
+	 */
+	private void cut(int slot) {
+		int before = prev[slot];
+		if (child[before] == slot) {
+			child[before] = sibling[slot];
+		} else {
+			sibling[before] = sibling[slot];
+		}
+		if (sibling[slot] != -1) {
+			prev[sibling[slot]] = before;
+		}
+		sibling[slot] = -1;
+		prev[slot] = -1;
+	}
+
+	/**
+	 * This method links a list of sibling trees into one tree with the two-pass rule: first pairs
+	 * from left to right, then the pairs from right to left
+	 * This method has an O(number of siblings) running time
+	 * @param first the first sibling, -1 for an empty list
+	 * @return the root of the combined tree, -1 if the list was empty
+	 */
+	private int pairUp(int first) {
+		int count = 0;
+		int current = first;
+		while (current != -1) {
+			int a = current;
+			int b = sibling[a];
+			current = b == -1 ? -1 : sibling[b];
+			sibling[a] = -1;
+			prev[a] = -1;
+			if (b != -1) {
+				sibling[b] = -1;
+				prev[b] = -1;
+				a = link(a, b);
+			}
+			if (count == pairs.length) {
+				pairs = Arrays.copyOf(pairs, count * 2);
+			}
+			pairs[count] = a;
+			count++;
+		}
+		if (count == 0) {
+			return -1;
+		}
+		int combined = pairs[count - 1];
+		for (int i = count - 2; i >= 0; i--) {
+			combined = link(pairs[i], combined);
+		}
+		return combined;
+	}
+
+	/**
+	 * This method hands out a free slot, growing the slot arrays if every slot is in use
+	 * This method has a constant amortized running time
+	 * @return a free slot
+	 */
+	private int takeSlot() {
+		if (freeCount > 0) {
+			freeCount--;
+			return freeSlots[freeCount];
+		}
+		if (used == nodes.length) {
+			int length = nodes.length * 2;
+			nodes = Arrays.copyOf(nodes, length);
+			keys = Arrays.copyOf(keys, length);
+			child = Arrays.copyOf(child, length);
+			sibling = Arrays.copyOf(sibling, length);
+			prev = Arrays.copyOf(prev, length);
+			freeSlots = Arrays.copyOf(freeSlots, length);
+		}
+		used++;
+		return used - 1;
+	}
+}
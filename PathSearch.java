@@ -0,0 +1,249 @@
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for point-to-point searches over a Graph with non-negative integer weights,
+ * which stop as soon as the distance to the target is known instead of settling the whole graph
+ * A*: Dijkstra's with each graphNode's priority set to its distance plus a heuristic estimate of
+ * the distance left to the target, so the search heads towards the target. Any admissible heuristic
+ * (one that never overestimates) gives the right distance; a consistent one also settles each graphNode once.
+ * BIDIRECTIONAL: Dijkstra's from the source forward and from the target backward (over the reverse
+ * graph), taking turns. mu is the shortest source-target path seen so far through an edge between
+ * the two searches, and the search stops once the last distances pulled on each side add up to mu.
+ * Every search returns a Result with the distance and the number of graphNodes settled (pulled
+ * from a queue), which is the number to watch when choosing a heuristic.
+ * The priorities of the graphNodes reached are overwritten. The bidirectional search puts the same
+ * graphNode in two queues with different priorities, so its queues are PairingHeaps, which copy the
+ * priority in on insert and rebalance instead of reading the field later.
+ */
+public class PathSearch {
+	private Graph graph;
+	private Graph reverse; //the graph with every edge turned around, null if only A* is used
+
+	/**
+	 * The constructor creates a search over a graph that can only run A* (and Dijkstra's)
+	 * This method has a constant running time
+	 * @param graph the graph
+	 */
+	public PathSearch(Graph graph) {
+		this(graph, null);
+	}
+
+	/**
+	 * The constructor creates a search over a graph and its reverse, which can also run the
+	 * bidirectional search. For an undirected graph, the graph is its own reverse.
+	 * This method has a constant running time
+	 * @param graph the graph
+	 * @param reverse the graph with every edge turned around
+	 */
+	public PathSearch(Graph graph, Graph reverse) {
+		this.graph = graph;
+		this.reverse = reverse;
+	}
+
+	/**
+	 * This method runs Dijkstra's from a source and stops when the target is settled
+	 * This method has an O((V + E) log V) running time
+	 * @param source the graphNode the path starts at
+	 * @param target the graphNode the path ends at
+	 * @return the distance and the number of graphNodes settled
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	public Result dijkstra(GraphNode source, GraphNode target) throws IllegalArgumentException {
+		return aStar(source, target, (g, t) -> 0);
+	}
+
+	/**
+	 * This method runs A* from a source to a target
+	 * This method has an O((V + E) log V) running time with a consistent heuristic
+	 * @param source the graphNode the path starts at
+	 * @param target the graphNode the path ends at
+	 * @param heuristic estimates the distance left to the target, never overestimating it
+	 * @return the distance and the number of graphNodes settled
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	public Result aStar(GraphNode source, GraphNode target, Heuristic heuristic) throws IllegalArgumentException {
+		HashMap distance = new HashMap();
+		MinPriorityQueue queue = new MinPriorityQueue();
+		int[] settled = new int[1];
+		distance.set(source, 0);
+		source.priority = heuristic.estimate(source, target);
+		queue.insert(source);
+		while (!queue.isEmpty()) {
+			GraphNode g = pull(queue);
+			settled[0]++;
+			int d = distance.getValue(g);
+			if (g == target || g.getId().equals(target.getId())) {
+				return new Result(d, settled[0]);
+			}
+			graph.forEachEdge(g, (to, weight) -> {
+				checkWeight(weight);
+				int old = distance.getValue(to);
+				if (old != -1 && old <= d + weight) {
+					return;
+				}
+				distance.set(to, d + weight);
+				to.priority = d + weight + heuristic.estimate(to, target);
+				//a graphNode that was already settled is reopened, which only happens with an inconsistent heuristic
+				if (queue.hasKey(to)) {
+					queue.rebalance(to);
+				} else {
+					queue.insert(to);
+				}
+			});
+		}
+		return new Result(-1, settled[0]);
+	}
+
+	/**
+	 * This method runs Dijkstra's from both ends at once, taking turns between the two sides
+	 * This method has an O((V + E) log V) running time
+	 * @param source the graphNode the path starts at
+	 * @param target the graphNode the path ends at
+	 * @return the distance and the number of graphNodes settled on both sides
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 * @throws IllegalStateException if this search was created without a reverse graph
+	 */
+	public Result bidirectional(GraphNode source, GraphNode target) throws IllegalArgumentException, IllegalStateException {
+		if (reverse == null) {
+			throw new IllegalStateException("the bidirectional search needs the reverse graph");
+		}
+		Side forward = new Side(graph, source);
+		Side backward = new Side(reverse, target);
+		int[] mu = {source == target || source.getId().equals(target.getId()) ? 0 : Integer.MAX_VALUE};
+		int settled = 0;
+		while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+			//the side with the smaller queue is expanded, which keeps the two searches balanced
+			Side side = forward.queue.size() <= backward.queue.size() ? forward : backward;
+			Side other = side == forward ? backward : forward;
+			GraphNode g = pull(side.queue);
+			settled++;
+			int d = side.distance.getValue(g);
+			side.settled.set(g, d);
+			side.last = d;
+			if ((long) side.last + other.last >= mu[0]) {
+				break;
+			}
+			side.graph.forEachEdge(g, (to, weight) -> {
+				checkWeight(weight);
+				int through = other.distance.getValue(to);
+				if (through != -1 && d + weight + through < mu[0]) {
+					mu[0] = d + weight + through;
+				}
+				if (side.settled.hasKey(to)) {
+					return;
+				}
+				int old = side.distance.getValue(to);
+				if (old != -1 && old <= d + weight) {
+					return;
+				}
+				side.distance.set(to, d + weight);
+				to.priority = d + weight;
+				if (side.queue.hasKey(to)) {
+					side.queue.rebalance(to);
+				} else {
+					side.queue.insert(to);
+				}
+			});
+		}
+		return new Result(mu[0] == Integer.MAX_VALUE ? -1 : mu[0], settled);
+	}
+
+	/**
+	 * This method pulls the graphNode with the smallest priority from a queue
+	 * This method has a O(logn) running time
+	 * @param queue a queue that is not empty
+	 * @return the graphNode with the smallest priority
+	 */
+	private static GraphNode pull(MinPriorityQueue queue) {
+		try {
+			return queue.pullHighestPriorityElement();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * This method checks that an edge weight is not negative
+	 * This method has a constant running time
+	 * @param weight the weight
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	private static void checkWeight(int weight) throws IllegalArgumentException {
+		if (weight < 0) {
+			throw new IllegalArgumentException("edge weights must not be negative");
+		}
+	}
+
+	/**
+	 * This is the class for one side of the bidirectional search
+	 */
+	private static class Side {
+		Graph graph;
+		HashMap distance = new HashMap(); //the tentative distance of every graphNode reached
+		HashMap settled = new HashMap(); //the final distance of every graphNode pulled
+		MinPriorityQueue queue = new MinPriorityQueue(new PairingHeap());
+		int last; //the distance of the last graphNode pulled, which never goes down
+
+		Side(Graph graph, GraphNode start) {
+			this.graph = graph;
+			distance.set(start, 0);
+			start.priority = 0;
+			queue.insert(start);
+		}
+	}
+
+	/**
+	 * This is the interface for the heuristics A* is guided by
+	 */
+	public interface Heuristic {
+
+		/**
+		 * This method estimates the distance from a graphNode to the target
+		 * @param g the graphNode
+		 * @param target the target
+		 * @return the estimate, at least 0 and never more than the real distance
+		 */
+		int estimate(GraphNode g, GraphNode target);
+	}
+
+	/**
+	 * This is the class for the outcome of a search
+	 */
+	public static class Result {
+		private final int distance;
+		private final int settled;
+
+		/**
+		 * The constructor creates a result
+		 * This method has a constant running time
+		 * @param distance the distance from the source to the target, -1 if the target cannot be reached
+		 * @param settled the number of graphNodes settled
+		 */
+		public Result(int distance, int settled) {
+			this.distance = distance;
+			this.settled = settled;
+		}
+
+		/**
+		 * This method returns the distance from the source to the target
+		 * This method has a constant running time
+		 * @return the distance, -1 if the target cannot be reached
+		 */
+		public int getDistance() {
+			return distance;
+		}
+
+		/**
+		 * This method returns the number of graphNodes the search settled
+		 * This method has a constant running time
+		 * @return the number of graphNodes settled
+		 */
+		public int getSettled() {
+			return settled;
+		}
+
+		public String toString() {
+			return "distance " + distance + ", " + settled + " settled";
+		}
+	}
+}
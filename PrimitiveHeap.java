@@ -0,0 +1,222 @@
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for an indexed min-heap of primitive handles (dense int IDs, such as the ones
+ * given out by a NodeDictionary)
+ * The heap is kept as a struct of arrays: the priority of each heap slot is stored inline in a
+ * double[] next to the int[] of handles, and a third int[] gives the slot of each handle. Comparisons
+ * never follow a pointer, and once the arrays are big enough no operation allocates anything.
+ * That is 16 bytes per element (8 for the priority, 4 for the handle, 4 for its position).
+ * The heap is 4-ary, so the children of a slot are next to each other in the priority array.
+ */
+public class PrimitiveHeap {
+	private static final int ARITY = 4;
+	private static final int MIN_CAPACITY = 16;
+
+	private double[] priorities; //the priority of the handle in each heap slot
+	private int[] handles; //the handle in each heap slot
+	private int[] position; //the heap slot of each handle, -1 if the handle is not in the heap
+	private int size; //number of handles in the heap
+
+	/**
+	 * This is the constructor for the heap
+	 * This method has an O(maxHandle) running time
+	 * @param handleCount the number of handles expected (handles are 0 to handleCount - 1)
+	 */
+	public PrimitiveHeap(int handleCount) {
+		int length = Math.max(handleCount, MIN_CAPACITY);
+		priorities = new double[length];
+		handles = new int[length];
+		position = new int[length];
+		Arrays.fill(position, -1);
+		this.size = 0;
+	}
+
+	/**
+	 * This method determines whether a handle is in the heap
+	 * This method has a constant running time
+	 * @param handle the handle
+	 * @return true if the handle is in the heap, false otherwise
+	 */
+	public boolean contains(int handle) {
+		return handle < position.length && position[handle] != -1;
+	}
+
+	/**
+	 * This method inserts a handle with a priority
+	 * This method has an O(log n) running time (amortized if the arrays have to grow)
+	 * @param handle the handle, which must not be in the heap already
+	 * @param priority the priority of the handle
+	 * @throws IllegalArgumentException if the handle is already in the heap
+	 */
+	public void insert(int handle, double priority) throws IllegalArgumentException {
+		if (contains(handle)) {
+			throw new IllegalArgumentException("handle " + handle + " is already in the heap");
+		}
+		if (handle >= position.length) {
+			int oldLength = position.length;
+			position = Arrays.copyOf(position, Math.max(handle + 1, oldLength * 2));
+			Arrays.fill(position, oldLength, position.length, -1);
+		}
+		if (size == handles.length) {
+			priorities = Arrays.copyOf(priorities, size * 2);
+			handles = Arrays.copyOf(handles, size * 2);
+		}
+		size++;
+		siftUp(handle, priority, size - 1);
+	}
+
+	/**
+	 * This method lowers the priority of a handle that is in the heap
+	 * This method has an O(log n) running time
+	 * @param handle the handle
+	 * @param priority the new priority, which must not be larger than the old one
+	 */
+	public void decreaseKey(int handle, double priority) {
+		siftUp(handle, priority, position[handle]);
+	}
+
+	/**
+	 * This method changes the priority of a handle that is in the heap, in either direction
+	 * This method has an O(log n) running time
+	 * @param handle the handle
+	 * @param priority the new priority
+	 */
+	public void updateKey(int handle, double priority) {
+		int slot = position[handle];
+		if (priority < priorities[slot]) {
+			siftUp(handle, priority, slot);
+		} else {
+			siftDown(handle, priority, slot);
+		}
+	}
+
+	/**
+	 * This method removes the handle with the smallest priority and returns it
+	 * This method has an O(log n) running time
+	 * @return the handle with the smallest priority
+	 * @throws IllegalStateException if the heap is empty
+	 */
+	public int pollMin() throws IllegalStateException {
+		if (size == 0) {
+			throw new IllegalStateException("heap is empty");
+		}
+		int min = handles[0];
+		position[min] = -1;
+		size--;
+		if (size > 0) {
+			siftDown(handles[size], priorities[size], 0);
+		}
+		return min;
+	}
+
+	/**
+	 * This method returns the handle with the smallest priority without removing it
+	 * This method has a constant running time
+	 * @return the handle with the smallest priority, or -1 if the heap is empty
+	 */
+	public int peekMin() {
+		return size == 0 ? -1 : handles[0];
+	}
+
+	/**
+	 * This method returns the priority of a handle that is in the heap
+	 * This method has a constant running time
+	 * @param handle the handle
+	 * @return the priority of the handle
+	 */
+	public double priorityOf(int handle) {
+		return priorities[position[handle]];
+	}
+
+	/**
+	 * This method returns the number of handles in the heap
+	 * This method has a constant running time
+	 * @return size of the heap
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method determines whether the heap is empty
+	 * This method has a constant running time
+	 * @return true if the heap is empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * This method moves a handle up from a hole until its parent is not larger, then writes it
+	 * This method has an O(log n) running time
+	 * @param handle the handle
+	 * @param priority the priority of the handle
+	 * @param slot the hole the handle starts in
+	 */
+	private void siftUp(int handle, double priority, int slot) {
+		while (slot > 0) {
+			int parent = (slot - 1) / ARITY;
+			if (priorities[parent] <= priority) {
+				break;
+			}
+			move(parent, slot);
+			slot = parent;
+		}
+		write(slot, handle, priority);
+	}
+
+	/**
+	 * This method moves a handle down from a hole until no child is smaller, then writes it
+	 * This method has an O(log n) running time
+	 * @param handle the handle
+	 * @param priority the priority of the handle
+	 * @param slot the hole the handle starts in
+	 */
+	private void siftDown(int handle, double priority, int slot) {
+		while (true) {
+			int first = ARITY * slot + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + ARITY, size);
+			int smallest = first;
+			for (int child = first + 1; child < last; child++) {
+				if (priorities[child] < priorities[smallest]) {
+					smallest = child;
+				}
+			}
+			if (priorities[smallest] >= priority) {
+				break;
+			}
+			move(smallest, slot);
+			slot = smallest;
+		}
+		write(slot, handle, priority);
+	}
+
+	/**
+	 * This method moves the handle in one slot to another slot
+	 * This method has a constant running time
+	 * @param from the slot the handle is in
+	 * @param to the slot it moves to
+	 */
+	private void move(int from, int to) {
+		write(to, handles[from], priorities[from]);
+	}
+
+	/**
+	 * This method writes a handle and its priority into a slot and records its position
+	 * This method has a constant running time
+	 * @param slot the slot
+	 * @param handle the handle
+	 * @param priority the priority of the handle
+	 */
+	private void write(int slot, int handle, double priority) {
+		handles[slot] = handle;
+		priorities[slot] = priority;
+		position[handle] = slot;
+	}
+}
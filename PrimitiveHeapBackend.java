@@ -0,0 +1,80 @@
+/**
+ * This is the MinPriorityQueue backend that keeps priorities inline in a PrimitiveHeap
+ * A NodeDictionary turns each graphNode into a dense ID for the primitive heap and back again.
+ * The priority of a graphNode is copied into the heap when it is inserted or rebalanced.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class PrimitiveHeapBackend implements PriorityQueueBackend {
+	private PrimitiveHeap heap;
+	private NodeDictionary dictionary;
+
+	/**
+	 * The constructor creates an empty backend
+	 * This method has an O(number of interned nodes) running time
+	 * @param dictionary the dictionary giving each graphNode a dense ID
+	 */
+	public PrimitiveHeapBackend(NodeDictionary dictionary) {
+		this.dictionary = dictionary;
+		heap = new PrimitiveHeap(dictionary.size());
+	}
+
+	/**
+	 * This method copies the priority of a graphNode into the primitive heap and inserts it,
+	 * interning the graphNode first if it has no dense ID yet
+	 * This method has a O(logn) running time
+	 * @param g the graphNode to be inserted
+	 */
+	public void insert(GraphNode g) {
+		heap.insert(dictionary.intern(g), g.priority);
+	}
+
+	/**
+	 * This method determines whether a graphNode is in the backend
+	 * This method has a constant running time
+	 * @param g the graphNode
+	 * @return true if the graphNode is in the backend, false otherwise
+	 */
+	public boolean hasKey(GraphNode g) {
+		int id = dictionary.getId(g);
+		return id != -1 && heap.contains(id);
+	}
+
+	/**
+	 * This method copies the new priority of a graphNode into the primitive heap and moves it
+	 * up or down to match
+	 * This method has a O(logn) running time
+	 * @param g the graphNode whose priority changed
+	 */
+	public void rebalance(GraphNode g) {
+		heap.updateKey(dictionary.getId(g), g.priority);
+	}
+
+	/**
+	 * This method removes the graphNode with the smallest priority and returns it
+	 * This method has a O(logn) running time
+	 * @return the graphNode with the smallest priority
+	 * @throws IllegalStateException if the backend is empty
+	 */
+	public GraphNode pullMin() throws IllegalStateException {
+		return dictionary.getNode(heap.pollMin());
+	}
+
+	/**
+	 * This method returns the number of graphNodes in the backend
+	 * This method has a constant running time
+	 * @return the number of graphNodes
+	 */
+	public int size() {
+		return heap.size();
+	}
+
+	/**
+	 * This method determines whether the backend is empty
+	 * This method has a constant running time
+	 * @return true if there are no graphNodes, false otherwise
+	 */
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * This is the interface for the heaps a MinPriorityQueue can be backed by
+ * Every backend orders graphNodes by their priority field, smallest first. After the priority of a
+ * graphNode in the backend is changed, rebalance must be called before any other operation.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public interface PriorityQueueBackend {
+
+	/**
+	 * This method inserts a graphNode
+	 * @param g the graphNode to be inserted
+	 */
+	void insert(GraphNode g);
+
+	/**
+	 * This method determines whether a graphNode is in the backend
+	 * @param g the graphNode
+	 * @return true if the graphNode is in the backend, false otherwise
+	 */
+	boolean hasKey(GraphNode g);
+
+	/**
+	 * This method restores the order of the backend after the priority of a graphNode has changed
+	 * @param g the graphNode whose priority changed
+	 */
+	void rebalance(GraphNode g);
+
+	/**
+	 * This method removes and returns the graphNode with the smallest priority
+	 * @return the graphNode with the smallest priority
+	 */
+	GraphNode pullMin();
+
+	/**
+	 * This method returns the number of graphNodes in the backend
+	 * @return the number of graphNodes
+	 */
+	int size();
+
+	/**
+	 * This method determines whether the backend is empty
+	 * @return true if there are no graphNodes, false otherwise
+	 */
+	boolean isEmpty();
+}
@@ -1,118 +1,291 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
 /**
  * This is an array implementation of a Queue
- * @author Jennifer Lee 
+ * The array is a ring whose length is a power of two, so a slot is found with a mask instead of a
+ * branch. head counts the elements ever dequeued and tail the elements ever enqueued: the queue
+ * holds tail - head elements, at slots head & mask to (tail - 1) & mask. The counters wrap around
+ * like everything else, and slots are never checked for null, so null can be enqueued too.
+ * An unbounded queue doubles its array when it is full, so enqueue never fails. A bounded queue
+ * never holds more than its limit, and reports backpressure instead: offer returns false and
+ * enqueue throws.
+ * Batches are moved with enqueueAll and drainTo, which copy at most two runs of the array (one on
+ * each side of the wrap point).
+ * The queue takes no lock, so a single-threaded user (like a BFS frontier) pays nothing for
+ * thread safety. Producer and consumer threads share a queue through a SynchronizedQueue, which
+ * also adds the blocking put and take.
+ * @author Jennifer Lee
  * jelee14108@brandeis.edu
  */
-public class Queue<T> { 
+public class Queue<T> {
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
 	private Object[] Q;
-	private T data;
-	private int front;
-	private int rear;
-	private int currSize; 
-	
-	/**
-	 * The constructor creates the internal array to the specified size 
-	 * and sets the variable currSize (indicating the number of elements currently in the Queue) to 0
-	 * The running time of the constructor method is constant. 
-	 * @param size
-	 */ 
+	private int mask; //Q.length - 1
+	private int head; //number of elements ever dequeued
+	private int tail; //number of elements ever enqueued
+	private int limit; //the most elements the queue may hold
+	private boolean bounded;
+
+	/**
+	 * The constructor creates an unbounded queue with room for a number of elements
+	 * before its array has to grow
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements expected
+	 */
 	public Queue(int size) {
-		Q = (T[]) new Object[size]; //initialize an Object array and then convert it to a generic type 
-		                            //then assign it to Q
-		this.front = 0;  // front and rear are both pointing towards the same index ([0]) upon initialization 
-		this.rear = 0;
-		this.currSize = 0; 
-		
+		this(size, false);
+	}
+
+	/**
+	 * The constructor creates a queue that is either unbounded (growing past size when it has to)
+	 * or bounded (holding at most size elements)
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements expected, or the limit of a bounded queue
+	 * @param bounded true to never hold more than size elements
+	 * @throws IllegalArgumentException if a bounded queue is given a size less than 1 or over 2^30
+	 */
+	public Queue(int size, boolean bounded) throws IllegalArgumentException {
+		if (bounded && (size < 1 || size > MAX_CAPACITY)) {
+			throw new IllegalArgumentException("the limit of a bounded queue must be between 1 and " + MAX_CAPACITY);
+		}
+		int capacity = MIN_CAPACITY;
+		while (capacity < size && capacity < MAX_CAPACITY) {
+			capacity = capacity * 2;
+		}
+		Q = new Object[capacity];
+		mask = capacity - 1;
+		this.bounded = bounded;
+		limit = bounded ? size : MAX_CAPACITY;
 	}
-	
+
+	/**
+	 * This method adds a new element to the end of the queue
+	 * This method has a constant amortized running time
+	 * @param data to be inserted into the queue
+	 * @throws IllegalStateException if the queue is bounded and full
+	 */
+	public void enqueue(T data) throws IllegalStateException {
+		if (!offer(data)) {
+			throw new IllegalStateException("the queue is full");
+		}
+	}
+
 	/**
-	 * This method adds a new element to the end of the queue 
-	 * This method has a constant running time 
+	 * This method adds a new element to the end of the queue if there is room for it
+	 * This method has a constant amortized running time
 	 * @param data to be inserted into the queue
+	 * @return true if the element was added, false if the queue is bounded and full
+	 */
+	public boolean offer(T data) {
+		int size = tail - head;
+		if (size == limit) {
+			return false;
+		}
+		if (size == Q.length) {
+			grow();
+		}
+		Q[tail & mask] = data;
+		tail++;
+		return true;
+	}
+
+	/**
+	 * This method adds a run of an array to the end of the queue, all or nothing
+	 * This method has an O(length) amortized running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @throws IllegalStateException if the queue is bounded and does not have room for all of them
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public void enqueueAll(T[] items, int offset, int length) throws IllegalStateException, IndexOutOfBoundsException {
+		if (length > limit - (tail - head)) {
+			throw new IllegalStateException("the queue does not have room for " + length + " more elements");
+		}
+		offerAll(items, offset, length);
+	}
+
+	/**
+	 * This method adds every element of a collection to the end of the queue, all or nothing
+	 * This method has an O(n) amortized running time
+	 * @param items the collection
+	 * @throws IllegalStateException if the queue is bounded and does not have room for all of them
+	 */
+	public void enqueueAll(Collection<? extends T> items) throws IllegalStateException {
+		@SuppressWarnings("unchecked")
+		T[] array = (T[]) items.toArray(); //an Object[] of Ts, which is all a T[] is after erasure
+		enqueueAll(array, 0, array.length);
+	}
+
+	/**
+	 * This method adds as much of a run of an array to the end of the queue as there is room for
+	 * This method has an O(length) amortized running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @return the number of elements added, which is less than length only if the queue is bounded
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public int offerAll(T[] items, int offset, int length) throws IndexOutOfBoundsException {
+		if (offset < 0 || length < 0 || offset > items.length - length) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " do not fit in " + items.length);
+		}
+		int size = tail - head;
+		int count = Math.min(length, limit - size);
+		if (count == 0) {
+			return 0;
+		}
+		while (size + count > Q.length) {
+			grow();
+		}
+		int start = tail & mask;
+		int firstPart = Math.min(count, Q.length - start);
+		System.arraycopy(items, offset, Q, start, firstPart);
+		System.arraycopy(items, offset + firstPart, Q, 0, count - firstPart);
+		tail += count;
+		return count;
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue into an array
+	 * This method has an O(max) running time
+	 * @param items the array the elements are copied into
+	 * @param offset the index the first element is copied to
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
+	 * @throws IndexOutOfBoundsException if max elements would not fit in the array
+	 */
+	public int drainTo(T[] items, int offset, int max) throws IndexOutOfBoundsException {
+		if (offset < 0 || max < 0 || offset > items.length - max) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and max " + max + " do not fit in " + items.length);
+		}
+		int count = Math.min(max, tail - head);
+		if (count == 0) {
+			return 0;
+		}
+		int start = head & mask;
+		int firstPart = Math.min(count, Q.length - start);
+		System.arraycopy(Q, start, items, offset, firstPart);
+		System.arraycopy(Q, 0, items, offset + firstPart, count - firstPart);
+		//the slots are cleared so the elements can be garbage collected
+		Arrays.fill(Q, start, start + firstPart, null);
+		Arrays.fill(Q, 0, count - firstPart, null);
+		head += count;
+		return count;
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue and hands them
+	 * to a consumer in order
+	 * This method has an O(max) running time
+	 * @param consumer is given each element taken off
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
 	 */
-	public void enqueue(T data) {
-		if (Q[rear] == null) {
-			Q[rear] = data;
-			currSize ++; 
-			if (rear == Q.length - 1) {
-				rear = 0; 
-			} else {
-				rear++;
-			}
-		} else {
-			System.out.println("Error: No more space in the queue"); 
+	public int drainTo(Consumer<? super T> consumer, int max) {
+		int count = Math.min(Math.max(max, 0), tail - head);
+		for (int i = 0; i < count; i++) {
+			consumer.accept(removeFirst());
 		}
+		return count;
 	}
-	
+
 	/**
-	 * This method takes off the first item of the queue and returns it 
+	 * This method takes off the first item of the queue and returns it
 	 * This method has a constant running time
-	 * @return element at the front of the queue 
+	 * @return element at the front of the queue, or null if the queue is empty
+	 * (a queue that holds nulls should be checked with isEmpty first)
 	 */
 	public T dequeue() {
-		if (Q[front] != null) {
-			T firstItem = (T) Q[front];
-			Q[front] = null;
-			currSize --; 
-			if (front == Q.length - 1 ) {
-				front = 0;
-			} else { 
-				front++; 
-			}
-		    return firstItem;
-		} else {
-			System.out.println("Error: There are no more elements to dequeue");
+		if (tail == head) {
 			return null;
 		}
+		return removeFirst();
 	}
-	
+
 	/**
 	 * This method returns the current number of elements in the queue
-	 * This method has a constant running time 
-	 * @return currSize current size of the queue 
+	 * This method has a constant running time
+	 * @return the current size of the queue
 	 */
 	public int getSize() {
-		return currSize; 
+		return tail - head;
 	}
-	
+
 	/**
 	 * This method returns true if the queue is empty
-	 * This method has a constant running time 
+	 * This method has a constant running time
 	 * @return boolean value
 	 */
 	public boolean isEmpty() {
-		if (Q[front] == null) {
-			return true;
-		}
-		return false; 
+		return tail == head;
 	}
 
 	/**
-	 * This method returns true if the queue is full 
-	 * This method has a constant running time 
-	 * @return boolean value 
+	 * This method returns true if the queue is full, which only a bounded queue ever is
+	 * This method has a constant running time
+	 * @return boolean value
 	 */
 	public boolean isFull() {
-		if (Q[rear] != null) {
-			return true;
-		}
-		return false; 
+		return tail - head == limit;
 	}
-	
+
 	/**
-	 * This is the toString method of the Queue class. It prints out all the items stored in the queue.
+	 * This method returns whether the queue is bounded
+	 * This method has a constant running time
+	 * @return true if the queue never holds more than its limit, false if it grows
+	 */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	/**
+	 * This is the toString method of the Queue class. It prints out all the items stored in the queue,
+	 * from the front to the end.
 	 * This method has a running time of O(n)
 	 */
 	public String toString() {
-		String allQ = "";
-		for (int i = 0; i < Q.length; i++) {
-			if (Q[i] != null) {
-				allQ += Q[i] + " ";
-			}
+		if (tail == head) {
+			return "none";
 		}
-		if (!allQ.equals("")) {
-			return allQ;
+		StringBuilder allQ = new StringBuilder();
+		for (int i = head; i != tail; i++) {
+			allQ.append(Q[i & mask]).append(" ");
 		}
-		return "none";
+		return allQ.toString();
+	}
+
+	/**
+	 * This method takes off the first item of a queue that is not empty
+	 * This method has a constant running time
+	 * @return element at the front of the queue
+	 */
+	private T removeFirst() {
+		@SuppressWarnings("unchecked")
+		T firstItem = (T) Q[head & mask];
+		Q[head & mask] = null; //so the element can be garbage collected
+		head++;
+		return firstItem;
+	}
+
+	/**
+	 * This method doubles the array, moving the elements so that the front is at slot 0 again
+	 * This method has an O(n) running time, which is amortized over the enqueues that filled the array
+	 */
+	private void grow() {
+		int size = tail - head;
+		Object[] larger = new Object[Q.length * 2];
+		int start = head & mask;
+		int firstPart = Math.min(size, Q.length - start);
+		System.arraycopy(Q, start, larger, 0, firstPart);
+		System.arraycopy(Q, 0, larger, firstPart, size - firstPart);
+		Q = larger;
+		mask = larger.length - 1;
+		head = 0;
+		tail = size;
 	}
 }
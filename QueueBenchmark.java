@@ -0,0 +1,148 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the benchmark that compares MPMCQueue with ArrayBlockingQueue (one lock shared by every
+ * producer and consumer) under contention
+ * A number of producer threads put Integers into the queue with put while a number of consumer
+ * threads take them with take, which is how a ThreadPoolExecutor uses its work queue. Every queue
+ * runs the same transfer a few times to warm up and then a few timed times, and the fastest timed
+ * run is reported in millions of elements moved per second.
+ * The sum of the elements taken is checked against the sum of the elements put.
+ */
+public class QueueBenchmark {
+	private static final int WARMUP_RUNS = 5;
+	private static final int TIMED_RUNS = 5;
+
+	/**
+	 * This method runs the benchmark with one to four producers and consumers
+	 * This method has an O(runs * items) running time
+	 * @param args not used
+	 * @throws InterruptedException if the thread is interrupted while waiting for a run
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int[] threads = {1, 2, 4};
+		for (int producers : threads) {
+			for (int consumers : threads) {
+				compare(producers, consumers, 1024, 1_000_000);
+			}
+		}
+	}
+
+	/**
+	 * This method times both queues with a number of producers and consumers and prints the results as a table
+	 * This method has an O(runs * items) running time
+	 * @param producers the number of producer threads, at least 1
+	 * @param consumers the number of consumer threads, at least 1
+	 * @param capacity the capacity of each queue, at least 2
+	 * @param items the number of elements moved in each run, at least 1
+	 * @throws IllegalArgumentException if any of the numbers is too small
+	 * @throws InterruptedException if the thread is interrupted while waiting for a run
+	 */
+	public static void compare(int producers, int consumers, int capacity, int items) throws IllegalArgumentException, InterruptedException {
+		if (producers < 1 || consumers < 1 || capacity < 2 || items < 1) {
+			throw new IllegalArgumentException("need at least one producer, one consumer, one item and a capacity of at least 2");
+		}
+		System.out.println(producers + " producers, " + consumers + " consumers, capacity " + capacity + ", " + items + " items");
+		System.out.println(String.format("%-22s %10s %12s", "queue", "best ms", "M items/s"));
+		report("MPMCQueue", () -> new MPMCQueue<Integer>(capacity), producers, consumers, items);
+		report("ArrayBlockingQueue", () -> new ArrayBlockingQueue<Integer>(capacity), producers, consumers, items);
+	}
+
+	/**
+	 * This method times one queue and prints a line of the table
+	 * This method has an O(runs * items) running time
+	 * @param name the name printed for the queue
+	 * @param queues makes a new, empty queue for every run
+	 * @param producers the number of producer threads
+	 * @param consumers the number of consumer threads
+	 * @param items the number of elements moved in each run
+	 * @throws InterruptedException if the thread is interrupted while waiting for a run
+	 */
+	private static void report(String name, Supplier<BlockingQueue<Integer>> queues, int producers, int consumers, int items) throws InterruptedException {
+		long best = Long.MAX_VALUE;
+		for (int run = 0; run < WARMUP_RUNS + TIMED_RUNS; run++) {
+			long elapsed = transfer(name, queues.get(), producers, consumers, items);
+			if (run >= WARMUP_RUNS) {
+				best = Math.min(best, elapsed);
+			}
+		}
+		System.out.println(String.format("%-22s %10.1f %12.2f", name, best / 1e6, items * 1e3 / best));
+	}
+
+	/**
+	 * This method moves a number of elements through a queue from the producers to the consumers
+	 * This method has an O(items) running time
+	 * @param name the name of the queue, for the error message
+	 * @param queue the empty queue
+	 * @param producers the number of producer threads
+	 * @param consumers the number of consumer threads
+	 * @param items the number of elements moved
+	 * @return the number of nanoseconds from when every thread was ready to when the last one finished
+	 * @throws InterruptedException if the thread is interrupted while waiting for the threads
+	 * @throws IllegalStateException if the consumers did not take exactly the elements the producers put
+	 */
+	private static long transfer(String name, BlockingQueue<Integer> queue, int producers, int consumers, int items) throws InterruptedException, IllegalStateException {
+		AtomicLong taken = new AtomicLong();
+		AtomicLong start = new AtomicLong();
+		CyclicBarrier ready = new CyclicBarrier(producers + consumers, () -> start.set(System.nanoTime()));
+		Thread[] threads = new Thread[producers + consumers];
+		for (int p = 0; p < producers; p++) {
+			int from = share(items, producers, p);
+			int to = share(items, producers, p + 1);
+			threads[p] = new Thread(() -> {
+				try {
+					ready.await();
+					for (int i = from; i < to; i++) {
+						queue.put(i);
+					}
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for (int c = 0; c < consumers; c++) {
+			int count = share(items, consumers, c + 1) - share(items, consumers, c);
+			threads[producers + c] = new Thread(() -> {
+				try {
+					ready.await();
+					long sum = 0;
+					for (int i = 0; i < count; i++) {
+						sum += queue.take();
+					}
+					taken.addAndGet(sum);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - start.get();
+		if (taken.get() != (long) items * (items - 1) / 2) {
+			throw new IllegalStateException(name + " lost or duplicated elements");
+		}
+		return elapsed;
+	}
+
+	/**
+	 * This method returns where the part of a number of items given to one of a number of threads starts
+	 * This method has a constant running time
+	 * @param items the number of items
+	 * @param threads the number of threads
+	 * @param index the index of the thread (or the number of threads, for the end of the last part)
+	 * @return the first item of that thread's part
+	 */
+	private static int share(int items, int threads, int index) {
+		return (int) ((long) items * index / threads);
+	}
+}
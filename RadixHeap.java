@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for a radix heap of graphNodes, a MinPriorityQueue backend for monotone integer
+ * priorities (like Dijkstra's with integer edge weights, where no priority is ever set below the
+ * last one pulled)
+ * Bucket 0 holds the graphNodes whose priority equals the last one pulled, and bucket i holds the
+ * ones whose priority first differs from it at bit i - 1. Pulling empties the lowest non-empty
+ * bucket into the lower buckets, and every graphNode can only move down at most 64 times, so every
+ * operation is O(log C) amortized with no comparisons between graphNodes at all.
+ * The buckets are index-linked lists over slot arrays, and the hashmap maps each graphNode to its slot.
+ */
+public class RadixHeap implements PriorityQueueBackend {
+	private static final int BUCKETS = 65;
+	private static final int MIN_CAPACITY = 16;
+
+	private HashMap slots; //maps each graphNode to its slot
+	private GraphNode[] nodes; //the graphNode in each slot
+	private long[] keys; //the priority of each slot, with the sign bit flipped so it sorts unsigned
+	private int[] bucketOf; //the bucket each slot is in
+	private SlotList.Links links;
+	private SlotList[] buckets;
+	private int[] freeSlots; //stack of slots that can be reused
+	private int freeCount;
+	private int used; //number of slots that have ever been handed out
+	private long last; //the (flipped) priority of the last graphNode pulled
+	private int size;
+
+	/**
+	 * The constructor creates an empty radix heap
+	 * This method has a constant running time
+	 */
+	public RadixHeap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * The constructor creates an empty radix heap that is expected to hold a number of graphNodes
+	 * This method has an O(capacityHint) running time
+	 * @param capacityHint the number of graphNodes the heap is expected to hold
+	 */
+	public RadixHeap(int capacityHint) {
+		int length = Math.max(capacityHint, MIN_CAPACITY);
+		slots = new HashMap(length, 0.6);
+		nodes = new GraphNode[length];
+		keys = new long[length];
+		bucketOf = new int[length];
+		freeSlots = new int[length];
+		links = new SlotList.Links(length);
+		buckets = new SlotList[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = new SlotList(links);
+		}
+		last = 0; //the flipped form of Long.MIN_VALUE
+	}
+
+	/**
+	 * This method inserts a graphNode into the bucket for its priority
+	 * This method has a constant running time
+	 * @throws IllegalArgumentException if the priority is below the last one pulled
+	 */
+	public void insert(GraphNode g) throws IllegalArgumentException {
+		long key = keyOf(g);
+		int slot = takeSlot();
+		nodes[slot] = g;
+		keys[slot] = key;
+		slots.set(g, slot);
+		addToBucket(slot);
+		size++;
+	}
+
+	/**
+	 * This method determines whether a graphNode is in the heap
+	 * This method has a constant running time
+	 * @param g the graphNode
+	 * @return true if the graphNode is in the heap, false otherwise
+	 */
+	public boolean hasKey(GraphNode g) {
+		return slots.hasKey(g);
+	}
+
+	/**
+	 * This method moves a graphNode to the bucket for its new priority
+	 * This method has a constant running time
+	 * @throws IllegalArgumentException if the priority is below the last one pulled
+	 */
+	public void rebalance(GraphNode g) throws IllegalArgumentException {
+		long key = keyOf(g);
+		int slot = slots.getValue(g);
+		buckets[bucketOf[slot]].remove(slot);
+		keys[slot] = key;
+		addToBucket(slot);
+	}
+
+	/**
+	 * This method pulls a graphNode from bucket 0, refilling it first from the lowest non-empty bucket
+	 * This method has an O(log C) amortized running time, where C is the largest priority difference
+	 * @throws IllegalStateException if the heap is empty
+	 */
+	public GraphNode pullMin() throws IllegalStateException {
+		if (size == 0) {
+			throw new IllegalStateException("heap is empty");
+		}
+		if (buckets[0].size() == 0) {
+			int i = 1;
+			while (buckets[i].size() == 0) {
+				i++;
+			}
+			//the smallest priority of the bucket becomes the new last, and its graphNodes all move down
+			long min = -1L;
+			for (int slot = buckets[i].peekFirst(); slot != -1; slot = buckets[i].next(slot)) {
+				if (Long.compareUnsigned(keys[slot], min) < 0) {
+					min = keys[slot];
+				}
+			}
+			last = min;
+			while (buckets[i].size() > 0) {
+				int slot = buckets[i].peekLast();
+				buckets[i].remove(slot);
+				addToBucket(slot);
+			}
+		}
+		int slot = buckets[0].peekLast();
+		buckets[0].remove(slot);
+		GraphNode g = nodes[slot];
+		slots.remove(g);
+		nodes[slot] = null;
+		freeSlots[freeCount] = slot;
+		freeCount++;
+		size--;
+		return g;
+	}
+
+	/**
+	 * This method returns the number of graphNodes in the heap
+	 * This method has a constant running time
+	 * @return the number of graphNodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method determines whether the heap is empty
+	 * This method has a constant running time
+	 * @return true if there are no graphNodes, false otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * This method returns the priority of a graphNode as a key, checking that it is monotone
+	 * This method has a constant running time
+	 * @param g the graphNode
+	 * @return the priority with its sign bit flipped, so that unsigned order is priority order
+	 * @throws IllegalArgumentException if the priority is below the last one pulled
+	 */
+	private long keyOf(GraphNode g) throws IllegalArgumentException {
+		long priority = g.priority;
+		long key = priority ^ Long.MIN_VALUE;
+		if (Long.compareUnsigned(key, last) < 0) {
+			throw new IllegalArgumentException("priority " + priority + " is below the last priority pulled");
+		}
+		return key;
+	}
+
+	/**
+	 * This method puts a slot into the bucket given by the highest bit where its key differs from last
+	 * This method has a constant running time
+	 * @param slot the slot
+	 */
+	private void addToBucket(int slot) {
+		long difference = keys[slot] ^ last;
+		int bucket = difference == 0 ? 0 : 64 - Long.numberOfLeadingZeros(difference);
+		bucketOf[slot] = bucket;
+		buckets[bucket].addFirst(slot);
+	}
+
+	/**
+	 * This method hands out a free slot, growing the slot arrays if every slot is in use
+	 * This method has a constant amortized running time
+	 * @return a free slot
+	 */
+	private int takeSlot() {
+		if (freeCount > 0) {
+			freeCount--;
+			return freeSlots[freeCount];
+		}
+		if (used == nodes.length) {
+			int length = nodes.length * 2;
+			nodes = Arrays.copyOf(nodes, length);
+			keys = Arrays.copyOf(keys, length);
+			bucketOf = Arrays.copyOf(bucketOf, length);
+			freeSlots = Arrays.copyOf(freeSlots, length);
+			links.resize(length);
+		}
+		used++;
+		return used - 1;
+	}
+}
@@ -0,0 +1,281 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * This is a lock-free queue for exactly one producer thread and one consumer thread
+ * It has the same methods as a bounded Queue: enqueue, offer, dequeue, getSize and isEmpty, and like
+ * a Queue, null can be enqueued and dequeue returns null on an empty queue (so a consumer of a queue
+ * that holds nulls checks isEmpty first). Only the producer may call enqueue and offer, and only the
+ * consumer may call dequeue. Anyone may call getSize and isEmpty (from the consumer, isEmpty is exact).
+ * The array is a power-of-two ring, with a tail counter that only the producer writes and a head
+ * counter that only the consumer writes. Each side publishes its counter with a release store, and
+ * reads the other side's counter with an acquire load, so an element written before tail moves is
+ * seen by the consumer, and a slot is not written again until the consumer is done with it.
+ * No lock is ever taken and no counter is ever compare-and-set.
+ * Each counter sits alone on its own cache lines (padded on both sides), next to the owner's cached
+ * copy of the other counter. The producer only reloads head when its cached copy says the queue is
+ * full, and the consumer only reloads tail when its copy says the queue is empty, so in a steady
+ * stream each side mostly touches its own cache line.
+ * Batches are moved with enqueueAll, offerAll and drainTo, which copy at most two runs of the
+ * array and publish the whole batch with a single release store of the counter.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class SPSCQueue<T> {
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final VarHandle VALUE;
+
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(CounterValue.class, "value", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Object[] Q;
+	private final int mask; //Q.length - 1
+	private final Counter tail = new Counter(); //number of elements ever enqueued, cache = the producer's copy of head
+	private final Counter head = new Counter(); //number of elements ever dequeued, cache = the consumer's copy of tail
+
+	/**
+	 * The constructor creates a queue that holds at least a number of elements, rounded up to a power of two
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements the queue must hold, at least 1
+	 * @throws IllegalArgumentException if size is less than 1 or over 2^30
+	 */
+	public SPSCQueue(int size) throws IllegalArgumentException {
+		if (size < 1 || size > MAX_CAPACITY) {
+			throw new IllegalArgumentException("size must be between 1 and " + MAX_CAPACITY);
+		}
+		int capacity = 1;
+		while (capacity < size) {
+			capacity = capacity * 2;
+		}
+		Q = new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue. Only the producer may call it.
+	 * This method has a constant running time
+	 * @param data to be inserted into the queue
+	 * @throws IllegalStateException if the queue is full
+	 */
+	public void enqueue(T data) throws IllegalStateException {
+		if (!offer(data)) {
+			throw new IllegalStateException("the queue is full");
+		}
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue if there is room for it. Only the producer may call it.
+	 * This method has a constant running time
+	 * @param data to be inserted into the queue
+	 * @return true if the element was added, false if the queue is full
+	 */
+	public boolean offer(T data) {
+		long t = tail.value; //only the producer writes tail, so a plain read is current
+		if (t - tail.cache == Q.length) {
+			tail.cache = (long) VALUE.getAcquire(head);
+			if (t - tail.cache == Q.length) {
+				return false;
+			}
+		}
+		Q[(int) t & mask] = data;
+		VALUE.setRelease(tail, t + 1);
+		return true;
+	}
+
+	/**
+	 * This method takes off the first item of the queue and returns it. Only the consumer may call it.
+	 * This method has a constant running time
+	 * @return element at the front of the queue, or null if the queue is empty
+	 * (a queue that holds nulls should be checked with isEmpty first)
+	 */
+	public T dequeue() {
+		long h = head.value; //only the consumer writes head, so a plain read is current
+		if (h == head.cache) {
+			head.cache = (long) VALUE.getAcquire(tail);
+			if (h == head.cache) {
+				return null;
+			}
+		}
+		int slot = (int) h & mask;
+		@SuppressWarnings("unchecked")
+		T firstItem = (T) Q[slot];
+		Q[slot] = null; //so the element can be garbage collected
+		VALUE.setRelease(head, h + 1);
+		return firstItem;
+	}
+
+	/**
+	 * This method adds a run of an array to the end of the queue, all or nothing. Only the producer may call it.
+	 * This method has an O(length) running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @throws IllegalStateException if the queue does not have room for all of them
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public void enqueueAll(T[] items, int offset, int length) throws IllegalStateException, IndexOutOfBoundsException {
+		if (length > Q.length - (tail.value - (long) VALUE.getAcquire(head))) {
+			throw new IllegalStateException("the queue does not have room for " + length + " more elements");
+		}
+		offerAll(items, offset, length);
+	}
+
+	/**
+	 * This method adds as much of a run of an array to the end of the queue as there is room for.
+	 * Only the producer may call it.
+	 * This method has an O(length) running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @return the number of elements added
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public int offerAll(T[] items, int offset, int length) throws IndexOutOfBoundsException {
+		if (offset < 0 || length < 0 || offset > items.length - length) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " do not fit in " + items.length);
+		}
+		long t = tail.value;
+		if (Q.length - (t - tail.cache) < length) {
+			tail.cache = (long) VALUE.getAcquire(head);
+		}
+		int count = (int) Math.min(length, Q.length - (t - tail.cache));
+		if (count == 0) {
+			return 0;
+		}
+		int start = (int) t & mask;
+		int firstPart = Math.min(count, Q.length - start);
+		System.arraycopy(items, offset, Q, start, firstPart);
+		System.arraycopy(items, offset + firstPart, Q, 0, count - firstPart);
+		VALUE.setRelease(tail, t + count);
+		return count;
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue into an array.
+	 * Only the consumer may call it.
+	 * This method has an O(max) running time
+	 * @param items the array the elements are copied into
+	 * @param offset the index the first element is copied to
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
+	 * @throws IndexOutOfBoundsException if max elements would not fit in the array
+	 */
+	public int drainTo(T[] items, int offset, int max) throws IndexOutOfBoundsException {
+		if (offset < 0 || max < 0 || offset > items.length - max) {
+			throw new IndexOutOfBoundsException("offset " + offset + " and max " + max + " do not fit in " + items.length);
+		}
+		long h = head.value;
+		int count = available(h, max);
+		if (count == 0) {
+			return 0;
+		}
+		int start = (int) h & mask;
+		int firstPart = Math.min(count, Q.length - start);
+		System.arraycopy(Q, start, items, offset, firstPart);
+		System.arraycopy(Q, 0, items, offset + firstPart, count - firstPart);
+		Arrays.fill(Q, start, start + firstPart, null);
+		Arrays.fill(Q, 0, count - firstPart, null);
+		VALUE.setRelease(head, h + count);
+		return count;
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue and hands them
+	 * to a consumer in order. The slots are only given back to the producer once the whole batch
+	 * has been handed over. Only the consumer thread may call it.
+	 * This method has an O(max) running time
+	 * @param consumer is given each element taken off
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
+	 */
+	public int drainTo(Consumer<? super T> consumer, int max) {
+		long h = head.value;
+		int count = available(h, Math.max(max, 0));
+		for (int i = 0; i < count; i++) {
+			int slot = (int) (h + i) & mask;
+			@SuppressWarnings("unchecked")
+			T item = (T) Q[slot];
+			Q[slot] = null;
+			consumer.accept(item);
+		}
+		if (count > 0) {
+			VALUE.setRelease(head, h + count);
+		}
+		return count;
+	}
+
+	/**
+	 * This method returns how many elements the consumer can take, reloading tail only if its
+	 * cached copy does not show enough
+	 * This method has a constant running time
+	 * @param h the consumer's head
+	 * @param max the most elements wanted
+	 * @return the number of elements that can be taken, at most max
+	 */
+	private int available(long h, int max) {
+		if (head.cache - h < max) {
+			head.cache = (long) VALUE.getAcquire(tail);
+		}
+		return (int) Math.min(max, head.cache - h);
+	}
+
+	/**
+	 * This method returns the current number of elements in the queue. While the producer and
+	 * consumer are running, it is only a snapshot.
+	 * This method has a constant running time
+	 * @return the current size of the queue
+	 */
+	public int getSize() {
+		long h = (long) VALUE.getAcquire(head);
+		long t = (long) VALUE.getAcquire(tail);
+		return (int) Math.max(0, Math.min(t - h, Q.length));
+	}
+
+	/**
+	 * This method returns true if the queue is empty
+	 * This method has a constant running time
+	 * @return boolean value
+	 */
+	public boolean isEmpty() {
+		return (long) VALUE.getAcquire(tail) == (long) VALUE.getAcquire(head);
+	}
+
+	/**
+	 * This method returns the number of elements the queue can hold
+	 * This method has a constant running time
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return Q.length;
+	}
+
+	/**
+	 * This is the padding before a counter: 7 longs, which with the object header fill a 64-byte line.
+	 * Fields of a superclass are laid out before the fields of its subclasses.
+	 */
+	private static class LeftPadding {
+		long p01, p02, p03, p04, p05, p06, p07;
+	}
+
+	/**
+	 * This is the counter itself, with its owner's cached copy of the other counter
+	 */
+	private static class CounterValue extends LeftPadding {
+		long value; //only read across threads through VALUE, with acquire and release
+		long cache;
+	}
+
+	/**
+	 * This is a counter with padding after it, so nothing else shares its cache line
+	 */
+	private static final class Counter extends CounterValue {
+		long p11, p12, p13, p14, p15, p16, p17;
+	}
+}
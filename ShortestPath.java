@@ -0,0 +1,427 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for single-source shortest paths over a Graph with non-negative integer weights
+ * Both modes return the distance of every reachable graphNode in a HashMap:
+ * SEQUENTIAL: Dijkstra's algorithm on a MinPriorityQueue, using each graphNode's priority as its
+ * tentative distance (so the priorities of the graphNodes reached are overwritten). Over a CSRGraph
+ * with a dictionary the search runs by dense ID, on a Heap with the same dictionary, and only turns
+ * the settled IDs back into graphNodes at the end.
+ * DELTA-STEPPING: the graphNodes are put into buckets of width delta by tentative distance. The
+ * lowest bucket is emptied over and over by relaxing its light edges (weight <= delta) in parallel
+ * on a ForkJoinPool, and then the heavy edges of every graphNode settled from it are relaxed once.
+ * A relaxation never files a graphNode more than ceil(maxWeight / delta) buckets past the one being
+ * emptied, so the buckets are a cyclic array of that many plus one, reused modulo its length.
+ * Only the relaxations are parallel; the bookkeeping between them (which graphNodes of a bucket
+ * still need relaxing, and which bucket each improved graphNode goes to) runs on the calling thread.
+ * Distances live in a ConcurrentHashMap and are only ever lowered with setIfLower, so threads never
+ * lock each other out of more than one bin. A delta of about the average edge weight (or the
+ * largest weight divided by the average degree) is a good start; delta = 1 behaves like Dijkstra's
+ * and a huge delta like Bellman-Ford.
+ * A CSRGraph can also be searched by dense ID with distancesFrom(int), straight over its arrays.
+ */
+public class ShortestPath {
+	private Graph graph;
+	private int delta; //the width of each bucket, 0 for the sequential mode
+	private ForkJoinPool pool; //the pool delta-stepping runs on, null for the sequential mode
+
+	/**
+	 * The constructor creates a sequential (Dijkstra's) search over a graph
+	 * This method has a constant running time
+	 * @param graph the graph
+	 */
+	public ShortestPath(Graph graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * The constructor creates a delta-stepping search over a graph on the common fork/join pool
+	 * This method has a constant running time
+	 * @param graph the graph
+	 * @param delta the width of each bucket, at least 1
+	 * @throws IllegalArgumentException if delta is less than 1
+	 */
+	public ShortestPath(Graph graph, int delta) throws IllegalArgumentException {
+		this(graph, delta, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * The constructor creates a delta-stepping search over a graph on a fork/join pool
+	 * This method has a constant running time
+	 * @param graph the graph
+	 * @param delta the width of each bucket, at least 1
+	 * @param pool the pool the relaxations run on
+	 * @throws IllegalArgumentException if delta is less than 1
+	 */
+	public ShortestPath(Graph graph, int delta, ForkJoinPool pool) throws IllegalArgumentException {
+		if (delta < 1) {
+			throw new IllegalArgumentException("delta must be at least 1");
+		}
+		this.graph = graph;
+		this.delta = delta;
+		this.pool = pool;
+	}
+
+	/**
+	 * This method finds the distance from a source to every graphNode it can reach
+	 * This method has an O((V + E) log V) running time sequentially, and an
+	 * O(V + E + maxDistance / delta) work running time with O(V + maxWeight / delta) memory for delta-stepping,
+	 * plus the rounds spent re-relaxing graphNodes whose distance dropped within their bucket
+	 * @param source the graphNode the paths start at
+	 * @return a hashmap from each reachable graphNode to its distance
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	public HashMap distancesFrom(GraphNode source) throws IllegalArgumentException {
+		if (pool == null) {
+			return dijkstra(source);
+		}
+		return deltaStepping(source);
+	}
+
+	/**
+	 * This method finds the distance from a source to every node of a CSRGraph by dense ID, with
+	 * Dijkstra's algorithm on a PrimitiveHeap, so nothing on the way is a GraphNode or a hashmap.
+	 * Both modes run this sequential search.
+	 * This method has an O((V + E) log V) running time
+	 * @param source the ID of the node the paths start at
+	 * @return the distance of each node by ID, -1 for the nodes that cannot be reached
+	 * @throws IllegalStateException if the graph is not a CSRGraph
+	 */
+	public int[] distancesFrom(int source) throws IllegalStateException {
+		if (!(graph instanceof CSRGraph)) {
+			throw new IllegalStateException("searching by ID needs a CSRGraph");
+		}
+		CSRGraph csr = (CSRGraph) graph;
+		int[] distance = new int[csr.nodeCount()];
+		Arrays.fill(distance, -1);
+		boolean[] settled = new boolean[csr.nodeCount()];
+		PrimitiveHeap queue = new PrimitiveHeap(csr.nodeCount());
+		distance[source] = 0;
+		queue.insert(source, 0);
+		while (!queue.isEmpty()) {
+			int v = queue.pollMin();
+			settled[v] = true;
+			int d = distance[v];
+			for (int e = csr.firstEdge(v), end = csr.endEdge(v); e < end; e++) {
+				int to = csr.target(e);
+				int through = d + csr.weight(e);
+				if (settled[to] || (distance[to] != -1 && distance[to] <= through)) {
+					continue;
+				}
+				if (distance[to] == -1) {
+					queue.insert(to, through);
+				} else {
+					queue.decreaseKey(to, through);
+				}
+				distance[to] = through;
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * This method runs Dijkstra's algorithm on a MinPriorityQueue
+	 * This method has an O((V + E) log V) running time
+	 * @param source the graphNode the paths start at
+	 * @return a hashmap from each reachable graphNode to its distance
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	private HashMap dijkstra(GraphNode source) throws IllegalArgumentException {
+		if (graph instanceof CSRGraph && ((CSRGraph) graph).getDictionary() != null) {
+			CSRGraph csr = (CSRGraph) graph;
+			int id = csr.getDictionary().getId(source);
+			if (id != -1 && id < csr.nodeCount()) {
+				return dijkstra(csr, id);
+			}
+		}
+		HashMap distance = new HashMap();
+		HashMap settled = new HashMap();
+		MinPriorityQueue queue = new MinPriorityQueue();
+		source.priority = 0;
+		distance.set(source, 0);
+		queue.insert(source);
+		while (!queue.isEmpty()) {
+			GraphNode g = pull(queue);
+			int d = distance.getValue(g);
+			settled.set(g, d);
+			graph.forEachEdge(g, (to, weight) -> {
+				checkWeight(weight);
+				int old = distance.getValue(to);
+				if (old != -1 && old <= d + weight) {
+					return;
+				}
+				distance.set(to, d + weight);
+				to.priority = d + weight;
+				if (queue.hasKey(to)) {
+					queue.rebalance(to);
+				} else if (!settled.hasKey(to)) {
+					queue.insert(to);
+				}
+			});
+		}
+		return settled;
+	}
+
+	/**
+	 * This method runs Dijkstra's algorithm over a CSRGraph by dense ID. The queue is a Heap with the
+	 * graph's dictionary, driven through its methods that take IDs, so relaxing an edge never hashes
+	 * a graphNode's ID.
+	 * This method has an O((V + E) log V) running time
+	 * @param csr the graph, which has a dictionary
+	 * @param source the ID of the graphNode the paths start at
+	 * @return a hashmap from each reachable graphNode to its distance
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	private HashMap dijkstra(CSRGraph csr, int source) throws IllegalArgumentException {
+		NodeDictionary dictionary = csr.getDictionary();
+		int[] distance = new int[csr.nodeCount()];
+		Arrays.fill(distance, -1);
+		boolean[] settled = new boolean[csr.nodeCount()];
+		int[] order = new int[csr.nodeCount()]; //the settled IDs, in the order they were settled
+		int count = 0;
+		MinPriorityQueue queue = new MinPriorityQueue(dictionary);
+		distance[source] = 0;
+		queue.insert(source, 0);
+		while (!queue.isEmpty()) {
+			int v = queue.pullHighestPriorityId();
+			settled[v] = true;
+			order[count++] = v;
+			int d = distance[v];
+			for (int e = csr.firstEdge(v), end = csr.endEdge(v); e < end; e++) {
+				int to = csr.target(e);
+				checkWeight(csr.weight(e));
+				int through = d + csr.weight(e);
+				if (settled[to] || (distance[to] != -1 && distance[to] <= through)) {
+					continue;
+				}
+				if (distance[to] == -1) {
+					queue.insert(to, through);
+				} else {
+					dictionary.getNode(to).priority = through;
+					queue.rebalance(to);
+				}
+				distance[to] = through;
+			}
+		}
+		GraphNode[] keys = new GraphNode[count];
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = dictionary.getNode(order[i]);
+			values[i] = distance[order[i]];
+		}
+		HashMap distances = new HashMap(count, 0.6);
+		distances.putAll(keys, values, false);
+		return distances;
+	}
+
+	/**
+	 * This method runs delta-stepping, relaxing the edges out of each bucket in parallel. Only the
+	 * relaxations run on the pool: picking the frontier out of a bucket and filing the improved
+	 * graphNodes into buckets are sequential. The buckets are a BucketRing, sized up front from the
+	 * largest weight of a CSRGraph, or grown to the largest span of buckets met for any other graph.
+	 * This method has an O(V + E + maxDistance / delta) work running time, plus the rounds spent
+	 * re-relaxing graphNodes whose distance dropped while their bucket was being emptied
+	 * @param source the graphNode the paths start at
+	 * @return a hashmap from each reachable graphNode to its distance
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	private HashMap deltaStepping(GraphNode source) throws IllegalArgumentException {
+		ConcurrentHashMap distance = new ConcurrentHashMap();
+		BucketRing buckets = new BucketRing(graph instanceof CSRGraph ? spanOf(((CSRGraph) graph).maxWeight()) : 2);
+		ArrayList<GraphNode> reached = new ArrayList<GraphNode>(); //every graphNode settled, in bucket order
+		//the distance each graphNode was last relaxed at. Distances only go down, and a graphNode
+		//is only relaxed while it is in the bucket being emptied, so one map serves every bucket.
+		HashMap relaxedAt = new HashMap();
+		distance.set(source, 0);
+		buckets.add(source, 0, 0);
+
+		for (int i = 0; !buckets.isEmpty(); i++) {
+			ArrayList<GraphNode> bucket = buckets.take(i);
+			if (bucket == null) {
+				continue; //no graphNode is waiting in this bucket
+			}
+			ArrayList<GraphNode> settled = new ArrayList<GraphNode>(); //the graphNodes first relaxed in this bucket
+			while (bucket != null) {
+				//the graphNodes still in bucket i that have not been relaxed at their current distance
+				ArrayList<GraphNode> frontier = new ArrayList<GraphNode>();
+				for (GraphNode g : bucket) {
+					int d = distance.getValue(g);
+					if (d / delta == i && relaxedAt.getValue(g) != d) {
+						if (!relaxedAt.hasKey(g)) {
+							settled.add(g);
+						}
+						relaxedAt.set(g, d);
+						frontier.add(g);
+					}
+				}
+				GraphNode[] improved = relax(frontier.toArray(new GraphNode[0]), distance, true);
+				for (GraphNode g : improved) {
+					buckets.add(g, distance.getValue(g) / delta, i);
+				}
+				bucket = buckets.take(i);
+			}
+			if (settled.isEmpty()) {
+				continue;
+			}
+			GraphNode[] improved = relax(settled.toArray(new GraphNode[0]), distance, false);
+			for (GraphNode g : improved) {
+				buckets.add(g, distance.getValue(g) / delta, i);
+			}
+			reached.addAll(settled);
+		}
+
+		GraphNode[] keys = reached.toArray(new GraphNode[0]);
+		int[] values = new int[keys.length];
+		Arrays.parallelSetAll(values, j -> distance.getValue(keys[j]));
+		HashMap distances = new HashMap(keys.length, 0.6);
+		distances.putAll(keys, values, true);
+		return distances;
+	}
+
+	/**
+	 * This method relaxes either the light or the heavy edges out of a set of graphNodes in parallel
+	 * This method has an O(edges out of the graphNodes) work running time
+	 * @param frontier the graphNodes whose edges are relaxed
+	 * @param distance the tentative distances, which are lowered in place
+	 * @param light true to relax the edges with weight <= delta, false to relax the others
+	 * @return the graphNodes whose distance was lowered (possibly more than once each)
+	 * @throws IllegalArgumentException if an edge with a negative weight is reached
+	 */
+	private GraphNode[] relax(GraphNode[] frontier, ConcurrentHashMap distance, boolean light) throws IllegalArgumentException {
+		return pool.submit(() -> Arrays.stream(frontier).parallel().flatMap(g -> {
+			int d = distance.getValue(g);
+			ArrayList<GraphNode> improved = new ArrayList<GraphNode>();
+			graph.forEachEdge(g, (to, weight) -> {
+				checkWeight(weight);
+				if ((weight <= delta) == light && distance.setIfLower(to, d + weight)) {
+					improved.add(to);
+				}
+			});
+			return improved.stream();
+		}).toArray(GraphNode[]::new)).join();
+	}
+
+	/**
+	 * This method returns the number of buckets a relaxation can reach, counting the one being emptied.
+	 * A graphNode in bucket i has a distance below (i + 1) * delta, so an edge of weight w files its
+	 * target at most ceil(w / delta) buckets further on.
+	 * This method has a constant running time
+	 * @param maxWeight the largest edge weight
+	 * @return ceil(maxWeight / delta) + 1
+	 */
+	private int spanOf(int maxWeight) {
+		return (int) (((long) maxWeight + delta - 1) / delta + 1);
+	}
+
+	/**
+	 * This method pulls the graphNode with the smallest distance from a queue
+	 * This method has a O(logn) running time
+	 * @param queue a queue that is not empty
+	 * @return the graphNode with the smallest distance
+	 */
+	private static GraphNode pull(MinPriorityQueue queue) {
+		try {
+			return queue.pullHighestPriorityElement();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * This method checks that an edge weight is not negative
+	 * This method has a constant running time
+	 * @param weight the weight
+	 * @throws IllegalArgumentException if the weight is negative
+	 */
+	private static void checkWeight(int weight) throws IllegalArgumentException {
+		if (weight < 0) {
+			throw new IllegalArgumentException("edge weights must not be negative");
+		}
+	}
+
+	/**
+	 * This is the class for the cyclic array of buckets delta-stepping fills. Only the buckets from
+	 * the one being emptied up to span - 1 past it can hold graphNodes, so bucket j is kept in slot
+	 * j % span, and a slot is reused once its bucket has been taken out. If a graphNode is filed
+	 * further ahead than that (a graph whose largest weight was not known up front), the ring at
+	 * least doubles, moving the live buckets to their slots in the longer array.
+	 */
+	private static class BucketRing {
+		private ArrayList<ArrayList<GraphNode>> slots; //bucket j is slot j % slots.size(), null when empty
+		private int pending; //the graphNodes filed and not yet taken out, stale copies included
+
+		/**
+		 * This is the constructor of the ring
+		 * This method has an O(span) running time
+		 * @param span the number of buckets, at least 1
+		 */
+		private BucketRing(int span) {
+			slots = new ArrayList<ArrayList<GraphNode>>(Collections.nCopies(span, (ArrayList<GraphNode>) null));
+		}
+
+		/**
+		 * This method files a graphNode into a bucket at or past the one being emptied
+		 * This method has a constant amortized running time
+		 * @param g the graphNode
+		 * @param j the index of the bucket
+		 * @param current the index of the bucket being emptied
+		 */
+		private void add(GraphNode g, int j, int current) {
+			if (j - current >= slots.size()) {
+				grow(j - current + 1, current);
+			}
+			int slot = j % slots.size();
+			if (slots.get(slot) == null) {
+				slots.set(slot, new ArrayList<GraphNode>());
+			}
+			slots.get(slot).add(g);
+			pending++;
+		}
+
+		/**
+		 * This method takes every graphNode out of a bucket, leaving its slot free
+		 * This method has a constant running time
+		 * @param i the index of the bucket, which must be the one being emptied
+		 * @return the graphNodes of the bucket, or null if it is empty
+		 */
+		private ArrayList<GraphNode> take(int i) {
+			int slot = i % slots.size();
+			ArrayList<GraphNode> bucket = slots.get(slot);
+			if (bucket != null) {
+				slots.set(slot, null);
+				pending -= bucket.size();
+			}
+			return bucket;
+		}
+
+		/**
+		 * This method checks whether every bucket is empty
+		 * This method has a constant running time
+		 * @return true if no graphNode is left in the ring
+		 */
+		private boolean isEmpty() {
+			return pending == 0;
+		}
+
+		/**
+		 * This method makes the ring longer, so the live buckets current to current + old length - 1
+		 * move to their slots modulo the new length
+		 * This method has an O(span) running time
+		 * @param span the smallest number of buckets needed
+		 * @param current the index of the bucket being emptied
+		 */
+		private void grow(int span, int current) {
+			int length = Math.max(span, 2 * slots.size());
+			ArrayList<ArrayList<GraphNode>> longer = new ArrayList<ArrayList<GraphNode>>(Collections.nCopies(length, (ArrayList<GraphNode>) null));
+			for (int j = current; j < current + slots.size(); j++) {
+				longer.set(j % length, slots.get(j % slots.size()));
+			}
+			slots = longer;
+		}
+	}
+}
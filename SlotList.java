@@ -0,0 +1,142 @@
+import java.util.Arrays;
+
+/**
+ * This is a doubly linked list of slot indices (0, 1, 2, ...) instead of node objects
+ * The links live in a Links object that several lists can share, since a slot is only
+ * ever in one list at a time. Every operation is constant time and allocates nothing.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class SlotList {
+	private Links links; //the prev and next link of every slot
+	private int head; //the first slot of the list, -1 if the list is empty
+	private int tail; //the last slot of the list, -1 if the list is empty
+	private int size;
+
+	/**
+	 * The constructor creates an empty list that stores its links in the given Links object
+	 * This method has a constant running time
+	 * @param links the links shared by all the lists the slots can be in
+	 */
+	public SlotList(Links links) {
+		this.links = links;
+		this.head = -1;
+		this.tail = -1;
+		this.size = 0;
+	}
+
+	/**
+	 * This method adds a slot to the front of the list
+	 * This method has a constant running time
+	 * @param slot a slot that is not in any list
+	 */
+	public void addFirst(int slot) {
+		links.prev[slot] = -1;
+		links.next[slot] = head;
+		if (head == -1) {
+			tail = slot;
+		} else {
+			links.prev[head] = slot;
+		}
+		head = slot;
+		size++;
+	}
+
+	/**
+	 * This method unlinks a slot from the list
+	 * This method has a constant running time
+	 * @param slot a slot that is in this list
+	 */
+	public void remove(int slot) {
+		int before = links.prev[slot];
+		int after = links.next[slot];
+		if (before == -1) {
+			head = after;
+		} else {
+			links.next[before] = after;
+		}
+		if (after == -1) {
+			tail = before;
+		} else {
+			links.prev[after] = before;
+		}
+		size--;
+	}
+
+	/**
+	 * This method moves a slot of this list to the front
+	 * This method has a constant running time
+	 * @param slot a slot that is in this list
+	 */
+	public void moveToFront(int slot) {
+		if (slot != head) {
+			remove(slot);
+			addFirst(slot);
+		}
+	}
+
+	/**
+	 * This method returns the first slot of the list without removing it
+	 * This method has a constant running time
+	 * @return the first slot, or -1 if the list is empty
+	 */
+	public int peekFirst() {
+		return head;
+	}
+
+	/**
+	 * This method returns the slot after a slot of this list, for walking the list from the front
+	 * This method has a constant running time
+	 * @param slot a slot that is in this list
+	 * @return the next slot, or -1 if slot is the last one
+	 */
+	public int next(int slot) {
+		return links.next[slot];
+	}
+
+	/**
+	 * This method returns the last slot of the list without removing it
+	 * This method has a constant running time
+	 * @return the last slot, or -1 if the list is empty
+	 */
+	public int peekLast() {
+		return tail;
+	}
+
+	/**
+	 * This method returns the number of slots in the list
+	 * This method has a constant running time
+	 * @return size of the list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This holds the prev and next link of every slot
+	 */
+	public static class Links {
+		private int[] prev;
+		private int[] next;
+
+		/**
+		 * The constructor creates the links for a number of slots
+		 * This method has an O(capacity) running time
+		 * @param capacity the number of slots
+		 */
+		public Links(int capacity) {
+			prev = new int[capacity];
+			next = new int[capacity];
+		}
+
+		/**
+		 * This method makes room for more slots, keeping the existing links
+		 * This method has an O(capacity) running time
+		 * @param capacity the new number of slots
+		 */
+		public void resize(int capacity) {
+			prev = Arrays.copyOf(prev, capacity);
+			next = Arrays.copyOf(next, capacity);
+		}
+	}
+}
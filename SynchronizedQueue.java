@@ -0,0 +1,240 @@
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * This is a thread-safe Queue, for producer and consumer threads that share a queue
+ * It owns a Queue and holds its own lock around every call to it, so it has the same contract
+ * (growing when it is unbounded, backpressure when it is bounded, null allowed), and it adds the
+ * blocking operations: put waits for room in a bounded queue, and take waits for an element.
+ * Waiting threads are woken with notifyAll only when the queue goes from empty to not empty, or
+ * from full to not full.
+ * A single-threaded user (like a BFS frontier) should use a Queue directly, which takes no lock.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class SynchronizedQueue<T> {
+	private final Queue<T> queue;
+
+	/**
+	 * The constructor creates an unbounded queue with room for a number of elements
+	 * before its array has to grow
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements expected
+	 */
+	public SynchronizedQueue(int size) {
+		this(size, false);
+	}
+
+	/**
+	 * The constructor creates a queue that is either unbounded (growing past size when it has to)
+	 * or bounded (holding at most size elements)
+	 * The running time of the constructor method is O(size).
+	 * @param size the number of elements expected, or the limit of a bounded queue
+	 * @param bounded true to never hold more than size elements
+	 * @throws IllegalArgumentException if a bounded queue is given a size less than 1 or over 2^30
+	 */
+	public SynchronizedQueue(int size, boolean bounded) throws IllegalArgumentException {
+		queue = new Queue<T>(size, bounded);
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue
+	 * This method has a constant amortized running time
+	 * @param data to be inserted into the queue
+	 * @throws IllegalStateException if the queue is bounded and full
+	 */
+	public synchronized void enqueue(T data) throws IllegalStateException {
+		if (!offer(data)) {
+			throw new IllegalStateException("the queue is full");
+		}
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue if there is room for it
+	 * This method has a constant amortized running time
+	 * @param data to be inserted into the queue
+	 * @return true if the element was added, false if the queue is bounded and full
+	 */
+	public synchronized boolean offer(T data) {
+		boolean wasEmpty = queue.isEmpty();
+		if (!queue.offer(data)) {
+			return false;
+		}
+		if (wasEmpty) {
+			notifyAll(); //wakes consumers waiting in take
+		}
+		return true;
+	}
+
+	/**
+	 * This method adds a new element to the end of the queue, waiting for room if the queue is bounded and full
+	 * This method has a constant amortized running time, plus the time spent waiting
+	 * @param data to be inserted into the queue
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public synchronized void put(T data) throws InterruptedException {
+		while (queue.isFull()) {
+			wait();
+		}
+		offer(data);
+	}
+
+	/**
+	 * This method adds a run of an array to the end of the queue, all or nothing
+	 * This method has an O(length) amortized running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @throws IllegalStateException if the queue is bounded and does not have room for all of them
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public synchronized void enqueueAll(T[] items, int offset, int length) throws IllegalStateException, IndexOutOfBoundsException {
+		boolean wasEmpty = queue.isEmpty();
+		queue.enqueueAll(items, offset, length);
+		if (wasEmpty && length > 0) {
+			notifyAll(); //wakes consumers waiting in take
+		}
+	}
+
+	/**
+	 * This method adds every element of a collection to the end of the queue, all or nothing
+	 * This method has an O(n) amortized running time
+	 * @param items the collection
+	 * @throws IllegalStateException if the queue is bounded and does not have room for all of them
+	 */
+	public synchronized void enqueueAll(Collection<? extends T> items) throws IllegalStateException {
+		@SuppressWarnings("unchecked")
+		T[] array = (T[]) items.toArray(); //an Object[] of Ts, which is all a T[] is after erasure
+		enqueueAll(array, 0, array.length);
+	}
+
+	/**
+	 * This method adds as much of a run of an array to the end of the queue as there is room for
+	 * This method has an O(length) amortized running time
+	 * @param items the array holding the elements
+	 * @param offset the index of the first element to add
+	 * @param length the number of elements to add
+	 * @return the number of elements added, which is less than length only if the queue is bounded
+	 * @throws IndexOutOfBoundsException if the run does not fit in the array
+	 */
+	public synchronized int offerAll(T[] items, int offset, int length) throws IndexOutOfBoundsException {
+		boolean wasEmpty = queue.isEmpty();
+		int count = queue.offerAll(items, offset, length);
+		if (wasEmpty && count > 0) {
+			notifyAll(); //wakes consumers waiting in take
+		}
+		return count;
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue into an array
+	 * This method has an O(max) running time
+	 * @param items the array the elements are copied into
+	 * @param offset the index the first element is copied to
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
+	 * @throws IndexOutOfBoundsException if max elements would not fit in the array
+	 */
+	public synchronized int drainTo(T[] items, int offset, int max) throws IndexOutOfBoundsException {
+		boolean wasFull = queue.isFull();
+		int count = queue.drainTo(items, offset, max);
+		if (wasFull && count > 0) {
+			notifyAll(); //wakes producers waiting in put
+		}
+		return count;
+	}
+
+	/**
+	 * This method takes off up to a number of elements from the front of the queue and hands them
+	 * to a consumer in order. The consumer runs after the queue's lock is released.
+	 * This method has an O(max) running time
+	 * @param consumer is given each element taken off
+	 * @param max the most elements to take off
+	 * @return the number of elements taken off
+	 */
+	public int drainTo(Consumer<? super T> consumer, int max) {
+		T[] batch;
+		synchronized (this) {
+			@SuppressWarnings("unchecked")
+			T[] taken = (T[]) new Object[Math.min(Math.max(max, 0), queue.getSize())];
+			drainTo(taken, 0, taken.length);
+			batch = taken;
+		}
+		for (T item : batch) {
+			consumer.accept(item);
+		}
+		return batch.length;
+	}
+
+	/**
+	 * This method takes off the first item of the queue and returns it
+	 * This method has a constant running time
+	 * @return element at the front of the queue, or null if the queue is empty
+	 */
+	public synchronized T dequeue() {
+		boolean wasFull = queue.isFull();
+		T firstItem = queue.dequeue();
+		if (wasFull) {
+			notifyAll(); //wakes producers waiting in put
+		}
+		return firstItem;
+	}
+
+	/**
+	 * This method takes off the first item of the queue and returns it, waiting for one if the queue is empty
+	 * This method has a constant running time, plus the time spent waiting
+	 * @return element at the front of the queue
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public synchronized T take() throws InterruptedException {
+		while (queue.isEmpty()) {
+			wait();
+		}
+		return dequeue();
+	}
+
+	/**
+	 * This method returns the current number of elements in the queue
+	 * This method has a constant running time
+	 * @return the current size of the queue
+	 */
+	public synchronized int getSize() {
+		return queue.getSize();
+	}
+
+	/**
+	 * This method returns true if the queue is empty
+	 * This method has a constant running time
+	 * @return boolean value
+	 */
+	public synchronized boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	/**
+	 * This method returns true if the queue is full, which only a bounded queue ever is
+	 * This method has a constant running time
+	 * @return boolean value
+	 */
+	public synchronized boolean isFull() {
+		return queue.isFull();
+	}
+
+	/**
+	 * This method returns whether the queue is bounded
+	 * This method has a constant running time
+	 * @return true if the queue never holds more than its limit, false if it grows
+	 */
+	public boolean isBounded() {
+		return queue.isBounded();
+	}
+
+	/**
+	 * This is the toString method of the SynchronizedQueue class. It prints out all the items stored
+	 * in the queue, from the front to the end.
+	 * This method has a running time of O(n)
+	 */
+	public synchronized String toString() {
+		return queue.toString();
+	}
+}
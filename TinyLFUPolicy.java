@@ -0,0 +1,168 @@
+import java.util.Arrays;
+
+/**
+ * This is the W-TinyLFU eviction policy for the Cache class
+ * New entries go into a small LRU window (1% of the entries). Entries leaving the window have to
+ * win against the main space's own victim to be admitted, where the winner is the one a
+ * FrequencySketch has seen more often. The main space is a segmented LRU: entries start on
+ * probation and are promoted to the protected segment (80% of the main space) when used again.
+ * This keeps one-hit wonders from pushing popular entries out of the cache.
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ */
+public class TinyLFUPolicy implements EvictionPolicy {
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+
+	private SlotList.Links links;
+	private SlotList window; //most recently used first
+	private SlotList probation; //most recently used first
+	private SlotList protectedList; //most recently used first
+	private byte[] segment; //which list each slot is in
+	private int[] hashes; //the key hash of each slot, used to ask the sketch about it
+	private FrequencySketch sketch;
+	private int maxWindow; //the number of entries the window may hold
+	private int maxMain; //the number of entries probation and protected may hold together
+	private int maxProtected; //the number of entries protected may hold
+
+	/**
+	 * The constructor sizes the window and main space for a cache of a given number of entries
+	 * This method has an O(maximumEntries) running time to build the sketch
+	 * @param maximumEntries the number of entries the cache is expected to hold
+	 */
+	public TinyLFUPolicy(int maximumEntries) {
+		links = new SlotList.Links(0);
+		window = new SlotList(links);
+		probation = new SlotList(links);
+		protectedList = new SlotList(links);
+		segment = new byte[0];
+		hashes = new int[0];
+		sketch = new FrequencySketch(maximumEntries);
+		maxWindow = Math.max(1, maximumEntries / 100);
+		maxMain = Math.max(1, maximumEntries - maxWindow);
+		maxProtected = (int) (maxMain * 0.8);
+	}
+
+	/**
+	 * This method grows the links, segments and cached key hashes to a new number of slots
+	 * This method has an O(capacity) running time, which is amortized over the inserts that filled the cache
+	 * @param capacity the new number of slots
+	 */
+	public void resize(int capacity) {
+		links.resize(capacity);
+		segment = Arrays.copyOf(segment, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+	}
+
+	/**
+	 * This method puts a new entry into the window. While the main space still has room,
+	 * entries that overflow the window move straight into probation.
+	 * This method has a constant amortized running time, since every entry moves out of the window at most once
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key, counted in the sketch
+	 */
+	public void recordInsert(int slot, int keyHash) {
+		sketch.increment(keyHash);
+		hashes[slot] = keyHash;
+		segment[slot] = WINDOW;
+		window.addFirst(slot);
+		while (window.size() > maxWindow && probation.size() + protectedList.size() < maxMain) {
+			int candidate = window.peekLast();
+			window.remove(candidate);
+			segment[candidate] = PROBATION;
+			probation.addFirst(candidate);
+		}
+	}
+
+	/**
+	 * This method moves a used entry to the front of its list, promoting it from probation to
+	 * protected. An entry pushed out of a full protected segment goes back on probation.
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 * @param keyHash the hash of the entry's key, counted in the sketch
+	 */
+	public void recordAccess(int slot, int keyHash) {
+		sketch.increment(keyHash);
+		if (segment[slot] == WINDOW) {
+			window.moveToFront(slot);
+		} else if (segment[slot] == PROTECTED) {
+			protectedList.moveToFront(slot);
+		} else {
+			probation.remove(slot);
+			segment[slot] = PROTECTED;
+			protectedList.addFirst(slot);
+			if (protectedList.size() > maxProtected) {
+				int demoted = protectedList.peekLast();
+				protectedList.remove(demoted);
+				segment[demoted] = PROBATION;
+				probation.addFirst(demoted);
+			}
+		}
+	}
+
+	/**
+	 * This method counts a lookup of a key that is not cached, so that a key that keeps missing
+	 * can win admission once it is put into the cache
+	 * This method has a constant amortized running time
+	 * @param keyHash the hash of the key
+	 */
+	public void recordMiss(int keyHash) {
+		sketch.increment(keyHash);
+	}
+
+	/**
+	 * This method unlinks an entry that left the cache from whichever list it is in
+	 * This method has a constant running time
+	 * @param slot the slot of the entry
+	 */
+	public void recordRemoval(int slot) {
+		listOf(slot).remove(slot);
+	}
+
+	/**
+	 * This method picks the victim. If the window is too big, its oldest entry competes with the
+	 * oldest probation entry and the less frequent of the two is evicted, while the winner stays
+	 * in (or is admitted to) probation. Otherwise the main space gives up its oldest entry.
+	 * This method has a constant running time
+	 * @return the slot of the entry to be evicted
+	 */
+	public int selectVictim() {
+		if (probation.size() == 0 && protectedList.size() > 0) {
+			int demoted = protectedList.peekLast();
+			protectedList.remove(demoted);
+			segment[demoted] = PROBATION;
+			probation.addFirst(demoted);
+		}
+		if (window.size() > maxWindow || probation.size() == 0) {
+			int candidate = window.peekLast();
+			int victim = probation.peekLast();
+			if (candidate == -1) {
+				return victim;
+			}
+			if (victim == -1 || sketch.frequency(hashes[candidate]) <= sketch.frequency(hashes[victim])) {
+				return candidate;
+			}
+			window.remove(candidate);
+			segment[candidate] = PROBATION;
+			probation.addFirst(candidate);
+			return victim;
+		}
+		return probation.peekLast();
+	}
+
+	/**
+	 * This method returns the list a slot is in
+	 * This method has a constant running time
+	 * @param slot the slot
+	 * @return the window, probation or protected list
+	 */
+	private SlotList listOf(int slot) {
+		if (segment[slot] == WINDOW) {
+			return window;
+		} else if (segment[slot] == PROBATION) {
+			return probation;
+		}
+		return protectedList;
+	}
+}
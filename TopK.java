@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * This is the class for selecting the K smallest (or largest) graphNodes by priority out of a stream
+ * The selector keeps the best K graphNodes seen so far in a bounded heap whose root is the WORST of
+ * them (a max-heap when selecting the smallest). A new graphNode that is not better than the root is
+ * rejected with one comparison; otherwise it replaces the root and is sifted down. So a stream of
+ * N graphNodes takes O(N log K) time in the worst case, close to O(N) when most are rejected, and
+ * only O(K) memory.
+ * The heap is 4-ary and moves a hole instead of swapping, like Heap, but it keeps no position map
+ * since graphNodes are never looked up or rebalanced.
+ * Parallel substreams each fill their own selector, and the partial results are combined with merge.
+ * A selector is not thread-safe.
+ */
+public class TopK {
+	private static final int ARITY = 4;
+
+	private GraphNode[] heap; //the best graphNodes so far, with the worst of them at the root
+	private int k;
+	private boolean largest; //true to keep the K largest priorities, false to keep the K smallest
+	private int size;
+
+	/**
+	 * The constructor creates a selector for the K smallest priorities
+	 * This method has an O(K) running time
+	 * @param k the number of graphNodes to keep, at least 1
+	 * @throws IllegalArgumentException if k is less than 1
+	 */
+	public TopK(int k) throws IllegalArgumentException {
+		this(k, false);
+	}
+
+	/**
+	 * The constructor creates a selector for the K smallest or the K largest priorities
+	 * This method has an O(K) running time
+	 * @param k the number of graphNodes to keep, at least 1
+	 * @param largest true to keep the K largest priorities, false to keep the K smallest
+	 * @throws IllegalArgumentException if k is less than 1
+	 */
+	public TopK(int k, boolean largest) throws IllegalArgumentException {
+		if (k < 1) {
+			throw new IllegalArgumentException("k must be at least 1");
+		}
+		this.k = k;
+		this.largest = largest;
+		heap = new GraphNode[k];
+	}
+
+	/**
+	 * This method offers one graphNode to the selector
+	 * This method has an O(log K) running time, and a constant one if the graphNode is rejected
+	 * @param g the graphNode
+	 * @return true if the graphNode is now among the best K, false if it was rejected
+	 */
+	public boolean offer(GraphNode g) {
+		if (size < k) {
+			size++;
+			siftUp(g, size - 1);
+			return true;
+		}
+		if (!worse(heap[0], g)) {
+			return false;
+		}
+		siftDown(g, 0);
+		return true;
+	}
+
+	/**
+	 * This method offers many graphNodes at once. If the selector is empty, the first K are
+	 * copied in and heapified bottom up in O(K) before the rest are offered.
+	 * This method has an O(n log K) running time
+	 * @param nodes the graphNodes
+	 */
+	public void offerAll(GraphNode[] nodes) {
+		int start = 0;
+		if (size == 0) {
+			start = Math.min(nodes.length, k);
+			System.arraycopy(nodes, 0, heap, 0, start);
+			size = start;
+			for (int i = (size - 2) / ARITY; i >= 0 && size > 1; i--) {
+				siftDown(heap[i], i);
+			}
+		}
+		for (int i = start; i < nodes.length; i++) {
+			offer(nodes[i]);
+		}
+	}
+
+	/**
+	 * This method merges the best graphNodes of another selector (such as the one of a parallel
+	 * substream) into this one, leaving the other selector as it was
+	 * This method has an O(K log K) running time
+	 * @param other a selector for the same direction
+	 * @throws IllegalArgumentException if the other selector keeps the opposite end
+	 */
+	public void merge(TopK other) throws IllegalArgumentException {
+		if (other.largest != largest) {
+			throw new IllegalArgumentException("cannot merge a selector for the largest with one for the smallest");
+		}
+		offerAll(Arrays.copyOf(other.heap, other.size));
+	}
+
+	/**
+	 * This method returns the worst graphNode that is still among the best K, which any new
+	 * graphNode has to beat once the selector is full
+	 * This method has a constant running time
+	 * @return the worst graphNode kept, or null if the selector is empty
+	 */
+	public GraphNode threshold() {
+		return size == 0 ? null : heap[0];
+	}
+
+	/**
+	 * This method returns the best graphNodes seen so far, best first
+	 * This method has an O(K log K) running time
+	 * @return the (up to) K best graphNodes
+	 */
+	public GraphNode[] toSortedArray() {
+		GraphNode[] sorted = Arrays.copyOf(heap, size);
+		if (largest) {
+			Arrays.sort(sorted, (a, b) -> Double.compare(b.priority, a.priority));
+		} else {
+			Arrays.sort(sorted, (a, b) -> Double.compare(a.priority, b.priority));
+		}
+		return sorted;
+	}
+
+	/**
+	 * This method returns the number of graphNodes kept, which is at most K
+	 * This method has a constant running time
+	 * @return the number of graphNodes kept
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method removes every graphNode from the selector
+	 * This method has an O(K) running time
+	 */
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * This method determines whether one graphNode is worse than another, so it belongs nearer the root
+	 * This method has a constant running time
+	 * @param a a graphNode
+	 * @param b another graphNode
+	 * @return true if a has a larger priority than b (a smaller one when keeping the largest)
+	 */
+	private boolean worse(GraphNode a, GraphNode b) {
+		return largest ? a.priority < b.priority : a.priority > b.priority;
+	}
+
+	/**
+	 * This method moves a graphNode up from a hole while its parent is better than it
+	 * This method has an O(log K) running time
+	 * @param g the graphNode
+	 * @param index the index of the hole
+	 */
+	private void siftUp(GraphNode g, int index) {
+		while (index > 0) {
+			int parent = (index - 1) / ARITY;
+			if (!worse(g, heap[parent])) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = g;
+	}
+
+	/**
+	 * This method moves a graphNode down from a hole while its worst child is worse than it
+	 * This method has an O(log K) running time
+	 * @param g the graphNode
+	 * @param index the index of the hole
+	 */
+	private void siftDown(GraphNode g, int index) {
+		while (true) {
+			int first = ARITY * index + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + ARITY, size);
+			int worst = first;
+			for (int child = first + 1; child < last; child++) {
+				if (worse(heap[child], heap[worst])) {
+					worst = child;
+				}
+			}
+			if (!worse(heap[worst], g)) {
+				break;
+			}
+			heap[index] = heap[worst];
+			index = worst;
+		}
+		heap[index] = g;
+	}
+}
@@ -0,0 +1,167 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * These are the tests of HashMap: random runs of set, getValue, hasKey and remove checked against
+ * java.util.HashMap (which exercise Robin Hood probing, backward-shift deletion and rehashing), the
+ * same runs with incremental rehashing and with the membership filter, keys whose IDs collide in
+ * String.hashCode, putAll and trimToSize, lookups between the steps of an incremental rehash, and
+ * the membership filter of a map that is drained and then kept nearly empty
+ * Run with the main classes on the classpath; a failed check throws an AssertionError.
+ */
+public class HashMapTest {
+
+	public static void main(String[] args) {
+		GraphNode[] nodes = nodes("n", 20_000);
+		againstJavaHashMap(new HashMap(), nodes, new Random(1));
+		againstJavaHashMap(new HashMap(16, 0.6, true), nodes, new Random(2));
+		againstJavaHashMap(new HashMap(16, 0.9, false), nodes, new Random(3));
+		HashMap filtered = new HashMap(16, 0.6, true);
+		filtered.setMembershipFilter(true);
+		againstJavaHashMap(filtered, nodes, new Random(4));
+		check(filtered.getFilterRejections() > 0, "the filter answers some lookups of missing keys");
+		collidingIds();
+		growthInterleavedWithLookups(nodes, new Random(5));
+		filterAtLowLoad(nodes);
+		bulkLoadAndTrim(nodes);
+		System.out.println("HashMapTest passed");
+	}
+
+	private static void againstJavaHashMap(HashMap map, GraphNode[] nodes, Random random) {
+		java.util.HashMap<String, Integer> expected = new java.util.HashMap<String, Integer>();
+		for (int step = 0; step < 300_000; step++) {
+			//the range of keys in use grows and shrinks, so the map is rehashed and emptied again
+			int range = 1 + (int) (nodes.length * Math.abs(Math.sin(step / 40_000.0)));
+			GraphNode g = nodes[random.nextInt(range)];
+			int op = random.nextInt(10);
+			if (op < 4) {
+				map.set(g, step);
+				expected.put(g.getId(), step);
+			} else if (op < 7) {
+				map.remove(g);
+				expected.remove(g.getId());
+			} else if (op < 9) {
+				Integer value = expected.get(g.getId());
+				check(map.getValue(g) == (value == null ? -1 : value), "getValue of " + g.getId() + " at step " + step);
+			} else {
+				check(map.hasKey(g) == expected.containsKey(g.getId()), "hasKey of " + g.getId() + " at step " + step);
+			}
+			check(map.size() == expected.size(), "size at step " + step);
+		}
+		for (GraphNode g : nodes) {
+			Integer value = expected.get(g.getId());
+			check(map.getValue(g) == (value == null ? -1 : value), "getValue of " + g.getId() + " at the end");
+		}
+		//a copy of a key (the same ID in another object) is the same key
+		for (String id : expected.keySet()) {
+			check(map.hasKey(new GraphNode(id, false)), "a graphNode with the same ID is found");
+		}
+	}
+
+	private static void collidingIds() {
+		//"Aa" and "BB" have the same String hash code, so these 4096 IDs all share one hash
+		List<GraphNode> keys = new ArrayList<GraphNode>();
+		for (int i = 0; i < 4096; i++) {
+			StringBuilder id = new StringBuilder();
+			for (int bit = 0; bit < 12; bit++) {
+				id.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+			}
+			keys.add(new GraphNode(id.toString(), false));
+		}
+		HashMap map = new HashMap(16, 0.6, false);
+		for (int i = 0; i < keys.size(); i++) {
+			map.set(keys.get(i), i);
+		}
+		for (int i = 0; i < keys.size(); i += 2) {
+			map.remove(keys.get(i));
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			check(map.getValue(keys.get(i)) == (i % 2 == 0 ? -1 : i), "colliding IDs are told apart after removes");
+		}
+		check(map.size() == keys.size() / 2, "half the colliding keys are left");
+	}
+
+	private static void growthInterleavedWithLookups(GraphNode[] nodes, Random random) {
+		//a small incremental map grows many times; after every insert (so while each rehash is still
+		//moving entries across) keys already in, keys not in yet and removed keys are all looked up
+		HashMap map = new HashMap(16, 0.6, true);
+		boolean[] removed = new boolean[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			map.set(nodes[i], i);
+			int old = random.nextInt(i + 1);
+			check(map.getValue(nodes[old]) == (removed[old] ? -1 : old), "a key inserted before the rehash is found during it");
+			if (i + 1 < nodes.length) {
+				check(!map.hasKey(nodes[i + 1 + random.nextInt(nodes.length - i - 1)]), "a key not inserted yet is not found");
+			}
+			if (i % 5 == 0 && !removed[old]) {
+				map.remove(nodes[old]);
+				removed[old] = true;
+				check(!map.hasKey(nodes[old]), "a key removed during a rehash is gone");
+			}
+		}
+		for (int i = 0; i < nodes.length; i++) {
+			check(map.getValue(nodes[i]) == (removed[i] ? -1 : i), "every key is where it should be after growing");
+		}
+	}
+
+	private static void filterAtLowLoad(GraphNode[] nodes) {
+		HashMap map = new HashMap(nodes.length, 0.6, false);
+		map.setMembershipFilter(true);
+		for (GraphNode g : nodes) {
+			map.set(g, 1);
+		}
+		for (GraphNode g : nodes) {
+			map.remove(g);
+		}
+		//with one key at a time in the map, every remove used to rebuild the whole filter
+		for (int i = 0; i < nodes.length; i++) {
+			map.set(nodes[i], i);
+			check(map.getValue(nodes[i]) == i && map.size() == 1, "the only key is found");
+			map.remove(nodes[i]);
+			check(!map.hasKey(nodes[i]), "a removed key is gone");
+		}
+		long rejections = map.getFilterRejections();
+		for (GraphNode g : nodes) {
+			check(!map.hasKey(g), "the drained map is empty");
+		}
+		check(map.getFilterRejections() - rejections > nodes.length / 2, "the rebuilt filter rejects most missing keys");
+	}
+
+	private static void bulkLoadAndTrim(GraphNode[] nodes) {
+		HashMap map = new HashMap(0, 0.6, true);
+		int[] values = new int[nodes.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 3;
+		}
+		map.set(nodes[5], -7);
+		map.putAll(nodes, values, true);
+		check(map.size() == nodes.length, "putAll adds every key once");
+		for (int i = 0; i < nodes.length; i++) {
+			check(map.getValue(nodes[i]) == i * 3, "putAll keeps the last value given");
+		}
+		for (int i = 100; i < nodes.length; i++) {
+			map.remove(nodes[i]);
+		}
+		map.trimToSize();
+		for (int i = 0; i < nodes.length; i++) {
+			check(map.hasKey(nodes[i]) == (i < 100), "trimToSize keeps exactly the keys left");
+		}
+	}
+
+	private static GraphNode[] nodes(String prefix, int count) {
+		GraphNode[] nodes = new GraphNode[count];
+		for (int i = 0; i < count; i++) {
+			nodes[i] = new GraphNode(prefix + i, false);
+		}
+		return nodes;
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}
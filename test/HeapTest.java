@@ -0,0 +1,156 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * These are the tests of Heap and MinPriorityQueue: random runs of insert, rebalance and pull checked
+ * against a TreeSet for binary and d-ary heaps, with the hashmap and with a node
+ * dictionary (dense-ID positions, and the methods taking IDs), with a hashmap that rehashes
+ * incrementally while the heap grows and shrinks, with the hashmap's membership filter on, and insertAll with Floyd's heapify,
+ * one level at a time in parallel or not
+ * Run with the main classes on the classpath; a failed check throws an AssertionError.
+ */
+public class HeapTest {
+
+	public static void main(String[] args) throws Exception {
+		GraphNode[] nodes = new GraphNode[5000];
+		NodeDictionary dictionary = new NodeDictionary();
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode("v" + i, false);
+			dictionary.intern(nodes[i]);
+		}
+		againstTreeSet(new Heap(), nodes, new Random(1));
+		againstTreeSet(new Heap(16, 4), nodes, new Random(2));
+		againstTreeSet(new Heap(16, 8), nodes, new Random(3));
+		againstTreeSet(new Heap(16, 2, true), nodes, new Random(7));
+		againstTreeSet(new Heap(16, 4, true), nodes, new Random(8));
+		againstTreeSet(new Heap(16, 2, false, true), nodes, new Random(9));
+		againstTreeSet(new Heap(16, 4, true, true), nodes, new Random(10));
+		againstTreeSet(new Heap(new NodeDictionary()), nodes, new Random(4));
+		againstTreeSet(new Heap(dictionary, 16, 4), nodes, new Random(5));
+		denseIds(dictionary, new Random(6));
+		for (int arity = 2; arity <= 8; arity *= 2) {
+			insertAll(nodes, null, arity, false, new Random(arity));
+			insertAll(nodes, null, arity, true, new Random(arity + 1));
+			insertAll(nodes, dictionary, arity, true, new Random(arity + 2));
+		}
+		System.out.println("HeapTest passed");
+	}
+
+	private static void againstTreeSet(Heap heap, GraphNode[] nodes, Random random) {
+		//the expected queue holds priority * n + index, so equal priorities are ordered by index
+		TreeSet<Long> expected = new TreeSet<Long>();
+		long n = nodes.length;
+		boolean[] queued = new boolean[nodes.length];
+		for (int step = 0; step < 200_000; step++) {
+			int i = random.nextInt(nodes.length);
+			GraphNode g = nodes[i];
+			int op = random.nextInt(10);
+			check(heap.hasKey(g) == queued[i], "hasKey at step " + step);
+			if (op < 5 && !queued[i]) {
+				g.priority = random.nextInt(1000);
+				heap.insert(g);
+				expected.add(g.priority * n + i);
+				queued[i] = true;
+			} else if (op < 8 && queued[i]) {
+				expected.remove(g.priority * n + i);
+				g.priority = random.nextInt(1000);
+				heap.rebalance(g);
+				expected.add(g.priority * n + i);
+			} else if (!heap.isEmpty()) {
+				GraphNode min = heap.pullMin();
+				check(min.priority == expected.first() / n, "pullMin returns a smallest priority at step " + step);
+				int index = Integer.parseInt(min.getId().substring(1));
+				check(expected.remove(min.priority * n + index), "pullMin returns a queued graphNode");
+				queued[index] = false;
+			}
+			check(heap.size() == expected.size(), "size at step " + step);
+		}
+		int last = Integer.MIN_VALUE;
+		while (!heap.isEmpty()) {
+			GraphNode min = heap.pullMin();
+			check(min.priority >= last, "the heap drains in order");
+			last = min.priority;
+		}
+	}
+
+	private static void denseIds(NodeDictionary dictionary, Random random) throws Exception {
+		MinPriorityQueue queue = new MinPriorityQueue(dictionary);
+		int n = dictionary.size();
+		int[] priority = new int[n];
+		for (int id = 0; id < n; id += 2) {
+			priority[id] = random.nextInt(100_000);
+			queue.insert(id, priority[id]);
+		}
+		for (int id = 0; id < n; id++) {
+			check(queue.hasKey(id) == (id % 2 == 0), "hasKey(int) sees exactly the inserted IDs");
+			check(queue.hasKey(dictionary.getNode(id)) == (id % 2 == 0), "hasKey(GraphNode) agrees with hasKey(int)");
+		}
+		for (int id = 0; id < n; id += 6) {
+			priority[id] = priority[id] / 2;
+			dictionary.getNode(id).priority = priority[id];
+			queue.rebalance(id);
+		}
+		int last = Integer.MIN_VALUE;
+		int pulled = 0;
+		while (!queue.isEmpty()) {
+			int id = queue.pullHighestPriorityId();
+			check(priority[id] >= last && id % 2 == 0, "pullHighestPriorityId drains in order");
+			check(!queue.hasKey(id), "a pulled ID is no longer in the queue");
+			last = priority[id];
+			pulled++;
+		}
+		check(pulled == (n + 1) / 2, "every inserted ID is pulled once");
+		try {
+			new MinPriorityQueue().hasKey(0);
+			throw new AssertionError("IDs need a node dictionary");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+	}
+
+	private static void insertAll(GraphNode[] nodes, NodeDictionary dictionary, int arity, boolean parallel, Random random) throws Exception {
+		Heap heap = dictionary == null ? new Heap(16, arity) : new Heap(dictionary, 16, arity);
+		MinPriorityQueue queue = new MinPriorityQueue(heap);
+		//a few graphNodes already queued, then a large batch (Floyd's heapify), then a small one (single inserts)
+		GraphNode[] first = new GraphNode[100];
+		GraphNode[] batch = new GraphNode[nodes.length - 200];
+		GraphNode[] small = new GraphNode[100];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i].priority = random.nextInt(50);
+			if (i < 100) {
+				first[i] = nodes[i];
+			} else if (i < nodes.length - 100) {
+				batch[i - 100] = nodes[i];
+			} else {
+				small[i - nodes.length + 100] = nodes[i];
+			}
+		}
+		queue.insertAll(first, parallel);
+		queue.insertAll(batch, parallel);
+		queue.insertAll(small, parallel);
+		check(queue.size() == nodes.length, "insertAll adds every graphNode");
+		for (GraphNode g : nodes) {
+			check(queue.hasKey(g), "insertAll records the position of every graphNode");
+		}
+		//changing priorities after insertAll finds each graphNode where its position says it is
+		for (int i = 0; i < nodes.length; i += 7) {
+			nodes[i].priority = random.nextInt(50);
+			queue.rebalance(nodes[i]);
+		}
+		int last = Integer.MIN_VALUE;
+		for (int i = 0; i < nodes.length; i++) {
+			GraphNode g = queue.pullHighestPriorityElement();
+			check(g.priority >= last, "the heap built by insertAll drains in order");
+			last = g.priority;
+		}
+		check(queue.isEmpty(), "the queue is drained");
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}
@@ -0,0 +1,151 @@
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * These are the tests of IntQueue and LongQueue: elements that wrap around the end of the array,
+ * growing while the elements wrap, bounded queues, and a random run checked against an ArrayDeque
+ * Run with the main classes on the classpath; a failed check throws an AssertionError.
+ */
+public class IntQueueTest {
+
+	public static void main(String[] args) {
+		wrapAround();
+		growWhileWrapped();
+		batchesAcrossTheEnd();
+		bounded();
+		randomAgainstArrayDeque(new Random(42));
+		longQueue(new Random(7));
+		System.out.println("IntQueueTest passed");
+	}
+
+	private static void wrapAround() {
+		IntQueue queue = new IntQueue(16);
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 11; i++) {
+				queue.enqueue(round * 100 + i);
+			}
+			for (int i = 0; i < 11; i++) {
+				check(queue.dequeue() == round * 100 + i, "elements come out in order after wrapping");
+			}
+		}
+		check(queue.isEmpty(), "the queue is empty");
+		try {
+			queue.dequeue();
+			throw new AssertionError("dequeue on an empty queue must throw");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+	}
+
+	private static void growWhileWrapped() {
+		IntQueue queue = new IntQueue(16);
+		for (int i = 0; i < 12; i++) {
+			queue.enqueue(-1);
+		}
+		for (int i = 0; i < 12; i++) {
+			queue.dequeue();
+		}
+		//the front is now at slot 12, so the next 16 elements wrap, and the 17th makes the array grow
+		for (int i = 0; i < 100; i++) {
+			queue.enqueue(i);
+		}
+		check(queue.getSize() == 100, "the queue grew to hold every element");
+		check(queue.peek() == 0, "the front is the first element enqueued");
+		for (int i = 0; i < 100; i++) {
+			check(queue.dequeue() == i, "growing keeps the order of wrapped elements");
+		}
+	}
+
+	private static void batchesAcrossTheEnd() {
+		IntQueue queue = new IntQueue(16);
+		int[] items = new int[40];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = i;
+		}
+		queue.offerAll(items, 0, 10);
+		int[] out = new int[40];
+		check(queue.drainTo(out, 0, 10) == 10, "drainTo takes the whole batch");
+		//the front is at slot 10: 12 elements wrap, then 25 more grow the array while wrapped
+		check(queue.offerAll(items, 0, 12) == 12, "offerAll adds a batch that wraps");
+		queue.enqueueAll(items, 12, 25);
+		check(queue.drainTo(out, 3, 37) == 37, "drainTo takes every element");
+		for (int i = 0; i < 37; i++) {
+			check(out[3 + i] == i, "batches keep their order across the end of the array");
+		}
+	}
+
+	private static void bounded() {
+		IntQueue queue = new IntQueue(20, true);
+		for (int i = 0; i < 20; i++) {
+			check(queue.offer(i), "a bounded queue takes elements up to its limit");
+		}
+		check(queue.isFull() && !queue.offer(20), "a bounded queue refuses elements past its limit");
+		check(queue.offerAll(new int[5], 0, 5) == 0, "offerAll adds nothing to a full queue");
+		try {
+			queue.enqueueAll(new int[1], 0, 1);
+			throw new AssertionError("enqueueAll on a full queue must throw");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+		for (int i = 0; i < 7; i++) {
+			queue.dequeue();
+		}
+		check(queue.offerAll(new int[] {20, 21, 22, 23, 24, 25, 26, 27}, 0, 8) == 7, "offerAll fills up to the limit");
+		for (int i = 7; i < 27; i++) {
+			check(queue.dequeue() == i, "a bounded queue keeps its order after wrapping");
+		}
+	}
+
+	private static void randomAgainstArrayDeque(Random random) {
+		IntQueue queue = new IntQueue(1);
+		ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+		int next = 0;
+		for (int step = 0; step < 200_000; step++) {
+			if (random.nextInt(10) < 6) {
+				queue.enqueue(next);
+				expected.add(next);
+				next++;
+			} else if (!expected.isEmpty()) {
+				check(queue.dequeue() == expected.remove(), "IntQueue matches an ArrayDeque");
+			}
+			check(queue.getSize() == expected.size(), "the sizes match");
+			if (step % 50_000 == 0) {
+				queue.clear();
+				expected.clear();
+			}
+		}
+	}
+
+	private static void longQueue(Random random) {
+		LongQueue queue = new LongQueue(16);
+		for (int i = 0; i < 12; i++) {
+			queue.enqueue(-1L);
+			queue.dequeue();
+		}
+		ArrayDeque<Long> expected = new ArrayDeque<Long>();
+		for (int step = 0; step < 100_000; step++) {
+			if (random.nextInt(10) < 6) {
+				long value = random.nextLong();
+				queue.enqueue(value);
+				expected.add(value);
+			} else if (!expected.isEmpty()) {
+				check(queue.dequeue() == expected.remove(), "LongQueue matches an ArrayDeque");
+			}
+		}
+		long[] out = new long[expected.size()];
+		check(queue.drainTo(out, 0, out.length) == out.length, "drainTo takes every element");
+		for (long value : out) {
+			check(value == expected.remove(), "LongQueue keeps its order across wrapping and growing");
+		}
+		LongQueue bounded = new LongQueue(3, true);
+		check(bounded.offer(1L) && bounded.offer(2L) && bounded.offer(3L) && !bounded.offer(4L), "a bounded LongQueue refuses elements past its limit");
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * These are the tests of MPMCQueue's remove(Object) and the iterator's remove, on their own, under
+ * a ThreadPoolExecutor (remove and purge), and racing with producers and consumers
+ * Run with the main classes on the classpath; a failed check throws an AssertionError.
+ */
+public class MPMCQueueTest {
+
+	public static void main(String[] args) throws Exception {
+		removeFromTheMiddle();
+		iteratorRemove();
+		drainSkipsRemoved();
+		threadPoolRemoveAndPurge();
+		removeRacingWithConsumers();
+		System.out.println("MPMCQueueTest passed");
+	}
+
+	private static void removeFromTheMiddle() {
+		MPMCQueue<Integer> queue = new MPMCQueue<Integer>(8);
+		for (int i = 0; i < 8; i++) {
+			queue.offer(i);
+		}
+		check(queue.remove(Integer.valueOf(3)), "an element in the middle is removed");
+		check(!queue.remove(Integer.valueOf(3)), "an element is only removed once");
+		check(!queue.remove(Integer.valueOf(42)), "a missing element is not removed");
+		check(queue.remove(Integer.valueOf(0)), "the first element is removed");
+		check(queue.size() == 6, "size does not count tombstones");
+		check(!queue.offer(8), "tombstones keep their slots until a consumer passes them");
+		check(queue.peek() == 1, "peek skips a removed first element");
+		int[] expected = {1, 2, 4, 5, 6, 7};
+		for (int value : expected) {
+			check(queue.poll() == value, "poll skips removed elements");
+		}
+		check(queue.poll() == null && queue.isEmpty(), "the queue is empty");
+		check(queue.remainingCapacity() == 8, "every slot is free again");
+	}
+
+	private static void iteratorRemove() {
+		MPMCQueue<Integer> queue = new MPMCQueue<Integer>(16);
+		for (int i = 0; i < 10; i++) {
+			queue.offer(i);
+		}
+		for (Iterator<Integer> it = queue.iterator(); it.hasNext();) {
+			if (it.next() % 2 == 0) {
+				it.remove();
+			}
+		}
+		check(queue.size() == 5, "the iterator removed the even elements");
+		List<Integer> left = new ArrayList<Integer>(queue);
+		check(left.toString().equals("[1, 3, 5, 7, 9]"), "the iterator skips tombstones: " + left);
+		Iterator<Integer> it = queue.iterator();
+		try {
+			it.remove();
+			throw new AssertionError("remove before next must throw");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+	}
+
+	private static void drainSkipsRemoved() {
+		MPMCQueue<Integer> queue = new MPMCQueue<Integer>(8);
+		for (int i = 0; i < 6; i++) {
+			queue.offer(i);
+		}
+		queue.remove(Integer.valueOf(0));
+		queue.remove(Integer.valueOf(1));
+		queue.remove(Integer.valueOf(4));
+		List<Integer> drained = new ArrayList<Integer>();
+		check(queue.drainTo(drained, 2) == 2, "drainTo moves two elements past the tombstones");
+		check(drained.toString().equals("[2, 3]"), "drainTo keeps the order: " + drained);
+		check(queue.drainTo(drained) == 1 && drained.get(2) == 5, "drainTo moves the rest");
+		check(queue.isEmpty(), "the queue is empty");
+	}
+
+	private static void threadPoolRemoveAndPurge() throws Exception {
+		MPMCQueue<Runnable> queue = new MPMCQueue<Runnable>(64);
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue);
+		CountDownLatch release = new CountDownLatch(1);
+		pool.execute(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		AtomicBoolean removedRan = new AtomicBoolean();
+		Runnable removed = () -> removedRan.set(true);
+		pool.execute(removed);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(pool.submit(() -> { }));
+		}
+		check(pool.remove(removed), "the executor removes a queued task");
+		check(!pool.remove(removed), "a task is only removed once");
+		for (int i = 0; i < 10; i += 2) {
+			futures.get(i).cancel(false);
+		}
+		pool.purge();
+		check(queue.size() == 5, "purge drops the cancelled tasks, leaving " + queue.size());
+		release.countDown();
+		for (int i = 1; i < 10; i += 2) {
+			futures.get(i).get(10, TimeUnit.SECONDS);
+		}
+		check(!removedRan.get(), "a removed task never runs");
+
+		//shutdownNow drains the queue, and must not lose a task behind a tombstone
+		CountDownLatch block = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		pool.execute(() -> {
+			started.countDown();
+			try {
+				block.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		check(started.await(10, TimeUnit.SECONDS), "the worker is busy");
+		Runnable first = () -> { };
+		pool.execute(first);
+		for (int i = 0; i < 5; i++) {
+			pool.execute(() -> { });
+		}
+		pool.remove(first);
+		List<Runnable> pending = pool.shutdownNow();
+		check(pending.size() == 5, "shutdownNow returns the tasks left in the queue, got " + pending.size());
+		check(pool.awaitTermination(10, TimeUnit.SECONDS), "the executor terminates");
+	}
+
+	private static void removeRacingWithConsumers() throws Exception {
+		int items = 200_000;
+		MPMCQueue<Integer> queue = new MPMCQueue<Integer>(256);
+		AtomicIntegerArray seen = new AtomicIntegerArray(items); //how many times each element was consumed or removed
+		Integer[] boxes = new Integer[items];
+		for (int i = 0; i < items; i++) {
+			boxes[i] = i;
+		}
+		AtomicBoolean produced = new AtomicBoolean();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int p = 0; p < 2; p++) {
+			int from = p * items / 2;
+			int to = (p + 1) * items / 2;
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = from; i < to; i++) {
+						queue.put(boxes[i]);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+		}
+		for (int c = 0; c < 2; c++) {
+			threads.add(new Thread(() -> {
+				while (!produced.get() || !queue.isEmpty()) {
+					Integer item = queue.poll();
+					if (item != null) {
+						seen.incrementAndGet(item);
+					}
+				}
+			}));
+		}
+		threads.add(new Thread(() -> {
+			while (!produced.get()) {
+				for (Iterator<Integer> it = queue.iterator(); it.hasNext();) {
+					Integer item = it.next();
+					if (item % 3 == 0 && queue.remove(item)) {
+						seen.incrementAndGet(item);
+					}
+				}
+			}
+		}));
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		threads.get(0).join();
+		threads.get(1).join();
+		produced.set(true);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < items; i++) {
+			check(seen.get(i) == 1, "element " + i + " was consumed or removed " + seen.get(i) + " times");
+		}
+		check(queue.isEmpty() && queue.size() == 0, "the queue is empty");
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * @author Jennifer Lee
+ * jelee14108@brandeis.edu
+ * These are the tests of MultiQueue: threads relaxing the same graphNodes with insertOrDecrease
+ * (every graphNode must be queued once, with the smallest priority any thread gave it), and
+ * threads relaxing and pulling at the same time (no graphNode may be left queued twice)
+ * Run with the main classes on the classpath; a failed check throws an AssertionError.
+ */
+public class MultiQueueTest {
+	private static final int THREADS = 4;
+
+	public static void main(String[] args) throws Exception {
+		GraphNode[] nodes = new GraphNode[2000];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode("m" + i, false);
+		}
+		for (int round = 0; round < 5; round++) {
+			concurrentRelaxations(nodes);
+			relaxingWhilePulling(nodes);
+		}
+		System.out.println("MultiQueueTest passed");
+	}
+
+	private static void concurrentRelaxations(GraphNode[] nodes) throws Exception {
+		MultiQueue queue = new MultiQueue(THREADS, 2);
+		AtomicIntegerArray smallest = new AtomicIntegerArray(nodes.length); //the smallest priority given to each graphNode
+		for (int i = 0; i < nodes.length; i++) {
+			smallest.set(i, Integer.MAX_VALUE);
+		}
+		runThreads(() -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int step = 0; step < 50_000; step++) {
+				int i = random.nextInt(nodes.length);
+				int priority = random.nextInt(1_000_000);
+				smallest.accumulateAndGet(i, priority, Math::min);
+				queue.insertOrDecrease(nodes[i], priority);
+			}
+		});
+		check(queue.size() == nodes.length, "every graphNode is queued once, size " + queue.size());
+		boolean[] pulled = new boolean[nodes.length];
+		for (int k = 0; k < nodes.length; k++) {
+			GraphNode g = queue.pullHighestPriorityElement();
+			int i = Integer.parseInt(g.getId().substring(1));
+			check(!pulled[i], g.getId() + " was queued twice");
+			check(g.priority == smallest.get(i), g.getId() + " has priority " + g.priority + ", not the smallest " + smallest.get(i));
+			pulled[i] = true;
+		}
+		check(queue.isEmpty() && queue.pullHighestPriorityElement() == null, "the queue is drained");
+	}
+
+	private static void relaxingWhilePulling(GraphNode[] nodes) throws Exception {
+		MultiQueue queue = new MultiQueue(THREADS, 2);
+		runThreads(() -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int step = 0; step < 50_000; step++) {
+				queue.insertOrDecrease(nodes[random.nextInt(nodes.length)], random.nextInt(1_000_000));
+				if (random.nextBoolean()) {
+					queue.pullHighestPriorityElement();
+				}
+			}
+		});
+		//once the threads are done, every graphNode still queued must be queued exactly once
+		boolean[] pulled = new boolean[nodes.length];
+		int left = queue.size();
+		for (int k = 0; k < left; k++) {
+			GraphNode g = queue.pullHighestPriorityElement();
+			int i = Integer.parseInt(g.getId().substring(1));
+			check(!pulled[i], g.getId() + " was queued twice");
+			check(!queue.hasKey(g), g.getId() + " is still in the home map after it was pulled");
+			pulled[i] = true;
+		}
+		check(queue.isEmpty() && queue.pullHighestPriorityElement() == null, "the queue is drained");
+		for (GraphNode g : nodes) {
+			check(!queue.hasKey(g), "no graphNode is left in the home map");
+		}
+	}
+
+	private static void runThreads(Runnable work) throws Exception {
+		List<Thread> threads = new ArrayList<Thread>();
+		List<Throwable> failures = new ArrayList<Throwable>();
+		for (int t = 0; t < THREADS; t++) {
+			Thread thread = new Thread(work);
+			thread.setUncaughtExceptionHandler((th, e) -> {
+				synchronized (failures) {
+					failures.add(e);
+				}
+			});
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (!failures.isEmpty()) {
+			throw new AssertionError(failures.get(0));
+		}
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}